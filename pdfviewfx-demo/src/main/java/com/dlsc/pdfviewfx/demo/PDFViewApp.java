@@ -10,6 +10,7 @@ import java.awt.print.PrinterException;
 import java.awt.print.PrinterJob;
 
 import javafx.scene.Scene;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
@@ -52,7 +53,7 @@ public class PDFViewApp extends Application {
 
             final File file = chooser.showOpenDialog(pdfView.getScene().getWindow());
             if (file != null) {
-                pdfView.load(file);
+                pdfView.loadAsync(file).setOnFailed(failed -> failed.getSource().getException().printStackTrace());
             }
         });
 
@@ -94,7 +95,13 @@ public class PDFViewApp extends Application {
         fileMenuItems.add(new SeparatorMenuItem());
         fileMenuItems.add(printItem);
 
-        MenuBar menuBar = new MenuBar(fileMenu);
+        CheckMenuItem continuousScrollingItem = new CheckMenuItem("Continuous Scrolling");
+        continuousScrollingItem.selectedProperty().bindBidirectional(pdfView.continuousScrollingProperty());
+
+        Menu viewMenu = new Menu("View");
+        viewMenu.getItems().add(continuousScrollingItem);
+
+        MenuBar menuBar = new MenuBar(fileMenu, viewMenu);
         menuBar.setUseSystemMenuBar(false);
 
         VBox.setVgrow(pdfView, Priority.ALWAYS);
@@ -1,85 +1,559 @@
 package com.dlsc.pdfviewfx;
 
 import com.dlsc.pdfviewfx.PDFView.Document;
+import com.dlsc.pdfviewfx.PDFView.RenderQuality;
 import com.dlsc.pdfviewfx.PDFView.SearchableDocument;
+import com.dlsc.pdfviewfx.PDFView.SearchableDocument.ResultCountConsumer;
 import com.dlsc.pdfviewfx.PDFView.SelectableDocument;
 
-import com.dlsc.pdfviewfx.impl.SelectionExtractor;
+import com.dlsc.pdfviewfx.impl.SearchHistory;
+import com.dlsc.pdfviewfx.impl.TextLayerIndex;
+import com.dlsc.pdfviewfx.impl.TextLayerIndex.PageText;
+import javafx.geometry.Dimension2D;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
 import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.printing.PDFPageable;
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
 import org.apache.pdfbox.rendering.RenderDestination;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.pdfbox.text.TextPosition;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
 import java.awt.print.Pageable;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.Writer;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 /**
  * An implementation of {@link Document} for the Apache PDFBox library.
+ * <p>
+ * A {@link PDDocument} must not be accessed by more than one thread at a time. To still be
+ * able to render several pages in parallel this class maintains a bounded pool of document
+ * instances. Each render borrows an instance from the pool and returns it when done. Additional
+ * instances are only opened on demand, up to the limit specified via {@link #setRenderPoolSize(int)}.
+ * <p>
+ * Files get memory mapped, so the pages of large documents are read by the operating system on demand
+ * and do not occupy the heap. The file gets mapped once, all document instances of the pool read from
+ * the same mapping. Streams larger than {@link #SPILL_THRESHOLD} get copied to a temporary file first,
+ * which will be deleted once the document and all of its instances have been closed.
+ * <p>
+ * The geometry of the pages gets resolved lazily. Only the first page gets resolved while the document
+ * is being opened, all other pages get resolved by a background thread or when they are requested
+ * for the first time, whichever happens first. The pages get resolved one at a time with a document
+ * instance outside of the pool, which the background thread opens first, so asking for the size of a
+ * page does not have to wait for a render. Only until that instance is open, pages get resolved with
+ * an idle instance of the pool.
+ * <p>
+ * Once the geometry is known, the same background thread extracts the text of all pages into a
+ * {@link TextLayerIndex}, which is then used for searching and selecting text. Pages that are
+ * searched or selected before the thread reaches them get extracted on demand. Large documents do
+ * not get preloaded by default, as their text layer would occupy too much memory, see
+ * {@link #setTextLayerPreloading(boolean)}.
  *
  * @see PDFView#setDocument(Document)
  */
 public class PDFBoxDocument implements SearchableDocument, SelectableDocument {
 
+    /**
+     * The number of bytes up to which a stream will be kept in memory.
+     */
+    public static final int SPILL_THRESHOLD = 16 * 1024 * 1024;
+
+    private static final COSName THUMB = COSName.getPDFName("Thumb");
+
+    // closes the document instances of pageables that are no longer used
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    // the number of pages whose text gets extracted in one pass, also the size of the search ranges
+    private static final int TEXT_BATCH_SIZE = 10;
+
+    // the number of pages whose text is kept while the text layer is not preloaded, larger
+    // documents do not get preloaded by default
+    private static final int TEXT_LAYER_PAGE_LIMIT = 500;
+
     private final PDDocument document;
+    private final List<RenderContext> renderContexts = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<RenderContext> idleRenderContexts = new LinkedBlockingQueue<>();
+    private volatile int renderPoolSize = Runtime.getRuntime().availableProcessors();
+
+    // the number of contexts that are being opened outside the lock, guarded by renderContexts
+    private int openingRenderContexts;
+
+    // the number of document instances used for printing that are still open, guarded by renderContexts
+    private int printingDocuments;
 
     private byte[] contentBytes;
     private File contentFile;
+    private boolean temporaryContentFile;
+
+    // the mapping of the content file shared by all document instances, guarded by renderContexts
+    private MappedByteBuffer mappedContent;
     private int numberOfPages;
+
+    // the page geometry, guarded by geometryLock
+    private final Object geometryLock = new Object();
+    private BitSet resolvedPages;
     private BitSet landscapeCache;
-    private SelectionExtractor textPositionExtractor = null;
+    private float[] pageWidths;
+    private float[] pageHeights;
+
+    // opened by the background thread, null before and once all pages have been resolved
+    private PDDocument geometryDocument;
+
+    private TextLayerIndex textLayer;
+    private final SearchHistory searchHistory = new SearchHistory(16);
+
+    // whether a thread extracts the text layer in the background, guarded by textLayerLock
+    private final Object textLayerLock = new Object();
+    private volatile boolean textLayerPreloading;
+    private boolean textLayerLoaderRunning;
+
+    private volatile boolean closed;
+    private volatile String contentHash;
 
     public PDFBoxDocument(InputStream pdfInputStream) {
         try {
-            contentBytes = pdfInputStream.readAllBytes();
+            readContent(pdfInputStream);
             document = createDocument();
+            initRenderPool();
             initCaches();
-        } catch (IOException e) {
-            throw new DocumentProcessingException(e);
+        } catch (IOException | DocumentProcessingException e) {
+            releaseContent();
+            throw e instanceof DocumentProcessingException processingException ? processingException : new DocumentProcessingException(e);
         }
     }
 
     public PDFBoxDocument(File file) {
         contentFile = file;
-        document = createDocument();
-        initCaches();
+        try {
+            document = createDocument();
+            initRenderPool();
+            initCaches();
+        } catch (DocumentProcessingException e) {
+            releaseContent();
+            throw e;
+        }
+    }
+
+    public PDFBoxDocument(Path path) {
+        this(path.toFile());
+    }
+
+    /*
+     * Keeps small documents in memory and copies large ones to a temporary file, so that they
+     * can be memory mapped.
+     */
+    private void readContent(InputStream pdfInputStream) throws IOException {
+        byte[] bytes = pdfInputStream.readNBytes(SPILL_THRESHOLD + 1);
+        if (bytes.length <= SPILL_THRESHOLD) {
+            contentBytes = bytes;
+            return;
+        }
+
+        contentFile = Files.createTempFile("pdfview", ".pdf").toFile();
+        temporaryContentFile = true;
+
+        try (OutputStream out = new FileOutputStream(contentFile)) {
+            out.write(bytes);
+            pdfInputStream.transferTo(out);
+        }
+    }
+
+    /*
+     * Unmaps the content file and deletes it if it is a temporary one. Must only be called once
+     * no document instance is left that could read from the mapping.
+     */
+    private void releaseContent() {
+        if (mappedContent != null) {
+            IOUtils.unmap(mappedContent);
+            mappedContent = null;
+        }
+
+        if (temporaryContentFile) {
+            contentFile.delete();
+        }
+    }
+
+    private void initRenderPool() {
+        RenderContext context = new RenderContext(document);
+        renderContexts.add(context);
+        idleRenderContexts.add(context);
     }
 
     private void initCaches() {
         numberOfPages = document.getNumberOfPages();
+        resolvedPages = new BitSet(numberOfPages);
         landscapeCache = new BitSet(numberOfPages);
-        for (int i = 0; i < numberOfPages; i++) {
-            PDPage page = document.getPage(i);
-            PDRectangle cropBox = page.getCropBox();
-            boolean landscape = cropBox.getHeight() < cropBox.getWidth();            
-            landscapeCache.set(i, landscape);
+        pageWidths = new float[numberOfPages];
+        pageHeights = new float[numberOfPages];
+        textLayer = new TextLayerIndex(numberOfPages);
+        textLayer.setTrigramIndexEnabled(true);
+
+        // the text layer of a large document would occupy too much of the heap
+        textLayerPreloading = numberOfPages <= TEXT_LAYER_PAGE_LIMIT;
+        if (!textLayerPreloading) {
+            textLayer.setMaxPages(TEXT_LAYER_PAGE_LIMIT);
+        }
+
+        if (numberOfPages > 0) {
+            // no other thread can access the document yet
+            resolvePage(document, 0);
+        }
+
+        if (numberOfPages > 0) {
+            // the text layer gets preloaded by the same thread once the geometry is known
+            textLayerLoaderRunning = true;
+            startLoader(this::loadRemainingPages);
+        }
+    }
+
+    private void startLoader(Runnable loader) {
+        Thread thread = new Thread(loader, PDFBoxDocument.class.getSimpleName() + " Page Loader");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private void loadRemainingPages() {
+        if (resolveRemainingPages()) {
+            loadTextLayer();
+        } else {
+            synchronized (textLayerLock) {
+                textLayerLoaderRunning = false;
+            }
+        }
+    }
+
+    /*
+     * Extracts the text of all pages as long as preloading is enabled. The flag only gets
+     * checked between two batches, so it might have been enabled again after the processing
+     * stopped, which has to be checked while holding the lock.
+     */
+    private void loadTextLayer() {
+        int pageNumber = 0;
+        while (true) {
+            pageNumber = processRemainingPages(pageNumber, TEXT_BATCH_SIZE, textLayer::index, () -> textLayerPreloading);
+            synchronized (textLayerLock) {
+                if (pageNumber == -1 || pageNumber == numberOfPages || !textLayerPreloading || closed) {
+                    textLayerLoaderRunning = false;
+                    return;
+                }
+            }
+        }
+    }
+
+    /*
+     * Resolves the geometry of one page at a time, so other threads never have to wait for more
+     * than a single page. Returns false if not all pages could be resolved.
+     */
+    private boolean resolveRemainingPages() {
+        // opened here, so that no other thread ever has to wait for the document to be parsed
+        PDDocument pdDocument;
+        try {
+            pdDocument = openDocument();
+        } catch (IOException e) {
+            // the pages will be resolved with the document instances of the pool instead
+            return false;
+        }
+
+        synchronized (geometryLock) {
+            if (closed) {
+                closeQuietly(pdDocument);
+                return false;
+            }
+            geometryDocument = pdDocument;
+        }
+
+        try {
+            for (int pageNumber = 1; pageNumber < numberOfPages && !closed; pageNumber++) {
+                ensureResolved(pageNumber);
+            }
+        } catch (RuntimeException e) {
+            // the document might have been closed, otherwise the broken page will be resolved
+            // again on demand, where the error gets reported
+            return false;
+        }
+
+        // all pages are known now, so the instance used for resolving them is no longer needed
+        synchronized (geometryLock) {
+            closeGeometryDocument();
+        }
+        return !closed;
+    }
+
+    /*
+     * Processes the pages in batches while the given condition holds. Only idle document
+     * instances get used, so rendering never has to wait for more than one batch and the pool
+     * does not grow because of this thread. Returns the first page that has not been processed
+     * or -1 if the processing failed.
+     */
+    private int processRemainingPages(int firstPage, int batchSize, PageBatch batch, BooleanSupplier condition) {
+        int pageNumber = firstPage;
+        while (pageNumber < numberOfPages && !closed && condition.getAsBoolean()) {
+            RenderContext context;
+            try {
+                context = idleRenderContexts.poll(50, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return -1;
+            }
+
+            if (context == null) {
+                continue;
+            }
+
+            try {
+                int end = Math.min(numberOfPages, pageNumber + batchSize);
+                batch.process(context.getDocument(), pageNumber, end);
+                pageNumber = end;
+            } catch (IOException | RuntimeException e) {
+                // the broken pages will be processed again on demand, where the error gets reported
+                return -1;
+            } finally {
+                releaseRenderContext(context);
+            }
+        }
+        return pageNumber;
+    }
+
+    private interface PageBatch {
+        void process(PDDocument pdDocument, int fromPage, int toPage) throws IOException;
+    }
+
+    /*
+     * Makes sure that the geometry of the given page is available. Looking up a single page in
+     * the page tree is fast, so this usually at most waits for another thread looking up a page.
+     * Until the background thread has opened the geometry instance, the page gets resolved with
+     * an idle instance of the pool instead, which might have to wait for a render to finish.
+     */
+    private void ensureResolved(int pageNumber) {
+        if (pageNumber < 0 || pageNumber >= numberOfPages) {
+            throw new IndexOutOfBoundsException("page number " + pageNumber + " is out of range [0, " + numberOfPages + ")");
+        }
+
+        while (true) {
+            synchronized (geometryLock) {
+                if (resolvedPages.get(pageNumber)) {
+                    return;
+                }
+                if (closed) {
+                    throw new DocumentProcessingException(new IOException("document has been closed"));
+                }
+                if (geometryDocument != null) {
+                    resolvePage(geometryDocument, pageNumber);
+                    return;
+                }
+            }
+
+            RenderContext context;
+            try {
+                context = idleRenderContexts.poll(10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DocumentProcessingException(e);
+            }
+
+            if (context != null) {
+                try {
+                    resolvePage(context.getDocument(), pageNumber);
+                } finally {
+                    releaseRenderContext(context);
+                }
+                return;
+            }
+        }
+    }
+
+    private void closeGeometryDocument() {
+        if (geometryDocument != null) {
+            closeQuietly(geometryDocument);
+            geometryDocument = null;
+        }
+    }
+
+    private static void closeQuietly(PDDocument pdDocument) {
+        try {
+            pdDocument.close();
+        } catch (IOException e) {
+            // only used for reading, nothing gets lost
+        }
+    }
+
+    private void resolvePage(PDDocument pdDocument, int pageNumber) {
+        synchronized (geometryLock) {
+            if (resolvedPages.get(pageNumber)) {
+                return;
+            }
+        }
+
+        PDPage page = pdDocument.getPage(pageNumber);
+        PDRectangle cropBox = page.getCropBox();
+        boolean landscape = cropBox.getHeight() < cropBox.getWidth();
+
+        // the rendered image gets rotated by the page's rotation, so its size has to be, too
+        boolean rotated = page.getRotation() % 180 != 0;
+
+        synchronized (geometryLock) {
+            landscapeCache.set(pageNumber, landscape);
+            pageWidths[pageNumber] = rotated ? cropBox.getHeight() : cropBox.getWidth();
+            pageHeights[pageNumber] = rotated ? cropBox.getWidth() : cropBox.getHeight();
+            resolvedPages.set(pageNumber);
         }
     }
 
+    /*
+     * Opens a document instance that does not use the shared mapping, so it can be used
+     * independently of the pool.
+     */
+    private PDDocument openDocument() throws IOException {
+        return contentFile != null ? Loader.loadPDF(contentFile) : Loader.loadPDF(contentBytes);
+    }
+
+    /*
+     * Opens a new document instance that reads from the shared mapping, for the pool or for
+     * printing. Only the mapping of the file happens while
+     * holding the lock of the pool, the document gets parsed without it.
+     */
     private PDDocument createDocument() {
         try {
-            return contentFile == null ? Loader.loadPDF(contentBytes) : Loader.loadPDF(new RandomAccessReadBufferedFile(contentFile));
+            if (contentFile == null) {
+                return Loader.loadPDF(contentBytes);
+            }
+
+            // a single mapped buffer can not be larger than 2 GB
+            if (contentFile.length() > Integer.MAX_VALUE) {
+                return Loader.loadPDF(new RandomAccessReadBufferedFile(contentFile));
+            }
+
+            ByteBuffer content;
+            synchronized (renderContexts) {
+                if (mappedContent == null) {
+                    try (FileChannel channel = FileChannel.open(contentFile.toPath(), StandardOpenOption.READ)) {
+                        mappedContent = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    }
+                }
+
+                // a duplicate shares the mapped memory but has its own position
+                content = mappedContent.duplicate();
+            }
+
+            return Loader.loadPDF(new RandomAccessReadBuffer(content));
         } catch (IOException e) {
             throw new DocumentProcessingException(e);
         }
     }
 
+    /**
+     * Returns the SHA-256 hash of the PDF bytes. The hash gets computed on first use.
+     *
+     * @return the content hash
+     */
+    @Override
+    public String getContentHash() {
+        String hash = contentHash;
+        if (hash == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                if (contentFile == null) {
+                    digest.update(contentBytes);
+                } else {
+                    try (InputStream in = new DigestInputStream(new FileInputStream(contentFile), digest)) {
+                        in.transferTo(OutputStream.nullOutputStream());
+                    }
+                }
+                hash = HexFormat.of().formatHex(digest.digest());
+                contentHash = hash;
+            } catch (IOException | NoSuchAlgorithmException e) {
+                throw new DocumentProcessingException(e);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the maximum number of document instances that will be opened for rendering.
+     *
+     * @return the size of the render pool
+     */
+    public final int getRenderPoolSize() {
+        return renderPoolSize;
+    }
+
+    /**
+     * Sets the maximum number of document instances that will be opened for rendering, which is
+     * also the maximum number of pages that can be rendered at the same time. Each instance holds
+     * its own parsed copy of the document structure, so larger values trade memory for throughput.
+     * The default value is the number of available processors.
+     *
+     * @param renderPoolSize the size of the render pool, must be at least 1
+     */
+    public final void setRenderPoolSize(int renderPoolSize) {
+        if (renderPoolSize < 1) {
+            throw new IllegalArgumentException("render pool size must be at least 1 but was " + renderPoolSize);
+        }
+        this.renderPoolSize = renderPoolSize;
+    }
+
+    @Override
+    public int getMaxConcurrentRenders() {
+        return renderPoolSize;
+    }
+
     @Override
     public int getNumberOfPages() {
         return numberOfPages;
@@ -87,129 +561,755 @@ public class PDFBoxDocument implements SearchableDocument, SelectableDocument {
 
     @Override
     public boolean isLandscape(int pageNumber) {
-        return landscapeCache.get(pageNumber);
+        ensureResolved(pageNumber);
+        synchronized (geometryLock) {
+            return landscapeCache.get(pageNumber);
+        }
+    }
+
+    @Override
+    public Dimension2D getPageSize(int pageNumber) {
+        ensureResolved(pageNumber);
+        synchronized (geometryLock) {
+            return new Dimension2D(pageWidths[pageNumber], pageHeights[pageNumber]);
+        }
     }
 
+    /**
+     * Returns a pageable with a document instance of its own. A printer job does not tell when
+     * it is done with the pageable, so the instance stays open until the pageable is no longer
+     * referenced, even if this document gets closed in the meantime. The file does not get
+     * released before that.
+     */
     @Override
     public Pageable getPageable() {
-        return new PDFPageable(createDocument());
+        synchronized (renderContexts) {
+            if (closed) {
+                throw new DocumentProcessingException(new IOException("document has been closed"));
+            }
+            printingDocuments++;
+        }
+
+        PDDocument pdDocument;
+        try {
+            pdDocument = createDocument();
+        } catch (RuntimeException e) {
+            releasePrintingDocument(null);
+            throw e;
+        }
+
+        PDFPageable pageable = new PDFPageable(pdDocument);
+        CLEANER.register(pageable, () -> releasePrintingDocument(pdDocument));
+        return pageable;
     }
 
+    private void releasePrintingDocument(PDDocument pdDocument) {
+        if (pdDocument != null) {
+            closeQuietly(pdDocument);
+        }
+
+        synchronized (renderContexts) {
+            printingDocuments--;
+            releaseContentIfUnused();
+        }
+    }
+
+    /**
+     * Renders the given page into an image of type {@link BufferedImage#TYPE_INT_ARGB_PRE}, or
+     * {@link BufferedImage#TYPE_INT_RGB} for opaque render qualities. These are pixel formats that
+     * the view can display without converting and copying the pixels first.
+     */
     @Override
     public BufferedImage renderPage(int pageNumber, float scale) {
-        PDFRenderer renderer = new PDFRenderer(document);
+        return renderPage(pageNumber, scale, () -> false);
+    }
+
+    @Override
+    public BufferedImage renderPage(int pageNumber, float scale, BooleanSupplier cancelled) {
+        return renderPage(pageNumber, scale, RenderQuality.HIGH, cancelled);
+    }
+
+    @Override
+    public BufferedImage renderPage(int pageNumber, float scale, RenderQuality quality, BooleanSupplier cancelled) {
         BufferedImage bufferedImage;
 
+        RenderContext context = acquireRenderContext();
+        try {
+            bufferedImage = context.renderImage(pageNumber, scale, quality, cancelled);
+        } catch (IOException e) {
+            throw new DocumentProcessingException(e);
+        } finally {
+            releaseRenderContext(context);
+        }
+
+        return bufferedImage.getType() == BufferedImage.TYPE_INT_ARGB ? premultiply(bufferedImage) : bufferedImage;
+    }
+
+    /*
+     * Converts an image of type TYPE_INT_ARGB into one of type TYPE_INT_ARGB_PRE. The pixels get
+     * converted in place, the returned image shares them with the given one.
+     */
+    private static BufferedImage premultiply(BufferedImage bufferedImage) {
+        int[] pixels = ((DataBufferInt) bufferedImage.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < pixels.length; i++) {
+            int pixel = pixels[i];
+            int alpha = pixel >>> 24;
+            if (alpha == 0) {
+                pixels[i] = 0;
+            } else if (alpha != 0xFF) {
+                int red = ((pixel >> 16 & 0xFF) * alpha + 127) / 255;
+                int green = ((pixel >> 8 & 0xFF) * alpha + 127) / 255;
+                int blue = ((pixel & 0xFF) * alpha + 127) / 255;
+                pixels[i] = alpha << 24 | red << 16 | green << 8 | blue;
+            }
+        }
+
+        // the same color model that BufferedImage uses for TYPE_INT_ARGB_PRE
+        ColorModel colorModel = new DirectColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), 32,
+                0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000, true, DataBuffer.TYPE_INT);
+        return new BufferedImage(colorModel, bufferedImage.getRaster(), true, null);
+    }
+
+    /**
+     * Renders the given region of the page into an image of type {@link BufferedImage#TYPE_INT_ARGB_PRE}.
+     * <p>
+     * Unlike whole pages, regions get drawn via {@link PDFRenderer#renderPageToGraphics(int, Graphics2D, float, float, RenderDestination)},
+     * which does not provide the page image to PDFBox. Transparency groups that blend with their
+     * backdrop, e.g. soft masks with a backdrop color or non-isolated groups using blend modes,
+     * therefore get blended with an empty backdrop within a region. This can make such content
+     * look slightly different in the tiles of a zoomed-in page than in the page itself.
+     */
+    @Override
+    public BufferedImage renderPageRegion(int pageNumber, float scale, Rectangle2D region) {
+        return renderPageRegion(pageNumber, scale, region, () -> false);
+    }
+
+    @Override
+    public BufferedImage renderPageRegion(int pageNumber, float scale, Rectangle2D region, BooleanSupplier cancelled) {
+        int width = (int) Math.max(1, Math.ceil(region.getWidth()));
+        int height = (int) Math.max(1, Math.ceil(region.getHeight()));
+
+        BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D graphics = bufferedImage.createGraphics();
+
+        RenderContext context = acquireRenderContext();
         try {
-            bufferedImage = renderer.renderImage(pageNumber, scale, ImageType.ARGB, RenderDestination.VIEW);
+            /*
+             * Tiles get placed on top of a lower resolution version of the page, so they must not
+             * be transparent. Java2D only rasterizes what falls into the image, so memory usage
+             * depends on the size of the region, not on the size of the page.
+             */
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, width, height);
+            graphics.translate(-region.getMinX(), -region.getMinY());
+            context.render(pageNumber, graphics, scale, RenderQuality.HIGH, cancelled);
         } catch (IOException e) {
             throw new DocumentProcessingException(e);
+        } finally {
+            releaseRenderContext(context);
+            graphics.dispose();
         }
 
         return bufferedImage;
     }
 
+    /**
+     * Returns the image stored in the /Thumb entry of the page. Pages with a rotation are
+     * skipped, as it is not defined whether their thumbnails have been rotated, too.
+     *
+     * @param pageNumber the page number
+     * @return the embedded thumbnail or null
+     */
     @Override
-    public List<PDFView.SearchResult> getSearchResults(String searchText) {
+    public BufferedImage getEmbeddedThumbnail(int pageNumber) {
+        RenderContext context = acquireRenderContext();
+        try {
+            PDPage page = context.getDocument().getPage(pageNumber);
+            COSStream thumbnail = page.getCOSObject().getCOSStream(THUMB);
+            if (thumbnail == null || page.getRotation() % 360 != 0) {
+                return null;
+            }
+            return new PDImageXObject(new PDStream(thumbnail), null).getImage();
+        } catch (IOException e) {
+            // a broken thumbnail is no reason to fail, the page will be rendered instead
+            return null;
+        } finally {
+            releaseRenderContext(context);
+        }
+    }
+
+    /*
+     * Returns an idle render context. A new document instance gets opened if none is idle and
+     * the pool has not reached its maximum size yet, otherwise this method blocks until another
+     * thread releases its context. Fails once the document has been closed, also while waiting.
+     */
+    private RenderContext acquireRenderContext() {
+        while (true) {
+            boolean open = false;
+            synchronized (renderContexts) {
+                if (closed) {
+                    throw new DocumentProcessingException(new IOException("document has been closed"));
+                }
+
+                RenderContext context = idleRenderContexts.poll();
+                if (context != null) {
+                    return context;
+                }
+
+                // only the slot gets reserved here, parsing the document takes too long to hold the lock
+                if (renderContexts.size() + openingRenderContexts < renderPoolSize) {
+                    openingRenderContexts++;
+                    open = true;
+                }
+            }
+
+            if (open) {
+                return openRenderContext();
+            }
+
+            try {
+                // close() does not put anything into the queue, hence the timeout
+                RenderContext context = idleRenderContexts.poll(50, TimeUnit.MILLISECONDS);
+                if (context != null) {
+                    return context;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DocumentProcessingException(e);
+            }
+        }
+    }
+
+    /*
+     * Opens a new context in a slot reserved by acquireRenderContext(). The document might get
+     * closed in the meantime, in which case the new instance gets closed right away.
+     */
+    private RenderContext openRenderContext() {
+        RenderContext context;
+        try {
+            context = new RenderContext(createDocument());
+        } catch (RuntimeException e) {
+            synchronized (renderContexts) {
+                openingRenderContexts--;
+                releaseContentIfUnused();
+            }
+            throw e;
+        }
+
+        synchronized (renderContexts) {
+            openingRenderContexts--;
+            if (!closed) {
+                renderContexts.add(context);
+                return context;
+            }
+        }
+
+        try {
+            context.getDocument().close();
+        } catch (IOException e) {
+            // nobody to report this to anymore, the document has already been closed
+        } finally {
+            synchronized (renderContexts) {
+                releaseContentIfUnused();
+            }
+        }
+        throw new DocumentProcessingException(new IOException("document has been closed"));
+    }
+
+    /*
+     * Returns the context to the pool. Contexts that are in use while the document gets closed
+     * get closed here, so a document instance is never closed while another thread uses it.
+     */
+    private void releaseRenderContext(RenderContext context) {
+        synchronized (renderContexts) {
+            if (!closed) {
+                idleRenderContexts.offer(context);
+                return;
+            }
+        }
 
+        try {
+            closeRenderContext(context);
+        } catch (IOException e) {
+            // nobody to report this to anymore, the document has already been closed
+        }
+    }
+
+    /*
+     * Closes the document instance of the context. Once the last one has been closed, nothing can
+     * read the content anymore, so it gets released.
+     */
+    private void closeRenderContext(RenderContext context) throws IOException {
+        try {
+            context.getDocument().close();
+        } finally {
+            synchronized (renderContexts) {
+                renderContexts.remove(context);
+                releaseContentIfUnused();
+            }
+        }
+    }
+
+    // guarded by renderContexts, the pool is only empty once the document has been closed
+    private void releaseContentIfUnused() {
+        if (renderContexts.isEmpty() && openingRenderContexts == 0 && printingDocuments == 0) {
+            releaseContent();
+        }
+    }
+
+    @Override
+    public List<PDFView.SearchResult> getSearchResults(String searchText) {
         List<PDFView.SearchResult> results = new ArrayList<>();
+        search(searchText, results::addAll, () -> false);
+        return results;
+    }
+
+    /**
+     * Determines whether the text of the pages gets added to an inverted trigram index, so that
+     * a search only has to look at the pages that might contain the search text.
+     *
+     * @return true if the search index is enabled
+     */
+    public final boolean isSearchIndexEnabled() {
+        return textLayer.isTrigramIndexEnabled();
+    }
+
+    /**
+     * Enables or disables the search index. The index gets built together with the text layer
+     * and needs roughly as much memory as the text of the document. Once it is complete,
+     * searching is fast enough to be done on every key stroke. The index is enabled by default.
+     *
+     * @param enabled true if the search index should be built
+     * @see #isSearchIndexed()
+     */
+    public final void setSearchIndexEnabled(boolean enabled) {
+        textLayer.setTrigramIndexEnabled(enabled);
+    }
+
+    /**
+     * Determines whether the text of all pages gets extracted in the background.
+     *
+     * @return true if the text layer gets preloaded
+     */
+    public final boolean isTextLayerPreloading() {
+        return textLayerPreloading;
+    }
 
-        PDFTextStripper stripper;
+    /**
+     * Enables or disables the extraction of the text of all pages in the background. The text
+     * layer makes searching and selecting fast, but needs memory for the text and the position
+     * of every character of the document. Without preloading, the text of a page only gets
+     * extracted when it is searched or selected, and only the text of the most recently
+     * extracted pages is kept. Without preloading, the search index only becomes complete once
+     * every page has been searched. Preloading is enabled by default for documents with up to
+     * 500 pages.
+     *
+     * @param preloading true if the text layer should be preloaded
+     * @see #setSearchIndexEnabled(boolean)
+     */
+    public final void setTextLayerPreloading(boolean preloading) {
+        synchronized (textLayerLock) {
+            textLayerPreloading = preloading;
+            textLayer.setMaxPages(preloading ? Math.max(1, numberOfPages) : TEXT_LAYER_PAGE_LIMIT);
 
-        stripper = new PDFTextStripper() {
+            // the loader might already have stopped, either because it was done or because preloading was disabled
+            if (preloading && !textLayerLoaderRunning && !closed && !textLayer.isIndexed(0, numberOfPages)) {
+                textLayerLoaderRunning = true;
+                startLoader(this::loadTextLayer);
+            }
+        }
+    }
 
-            private int pageNumber = -1;
+    @Override
+    public boolean isSearchIndexed() {
+        return textLayer.isTrigramIndexComplete();
+    }
+
+    /**
+     * Searches ranges of pages in parallel on virtual threads. Pages that have not been extracted
+     * yet get extracted by the render pool, so up to {@link #getRenderPoolSize()} ranges get
+     * extracted at the same time. Only a limited number of ranges is searched ahead of the first
+     * unfinished range, so the results of the first pages are found first and can be passed to
+     * the consumer in page order. With the search index enabled, only the pages that might
+     * contain the search text get searched.
+     * <p>
+     * The results of recent searches get reused, see {@link SearchHistory}.
+     */
+    @Override
+    public void search(String searchText, Consumer<List<PDFView.SearchResult>> resultConsumer, BooleanSupplier cancelled) {
+        search(searchText, Integer.MAX_VALUE, resultConsumer, (pageNumber, resultCount) -> {
+        }, cancelled);
+    }
+
+    /**
+     * Searches like {@link #search(String, Consumer, BooleanSupplier)}. The ranges only find the
+     * positions of the hits, the search results get created only for the pages within the limit.
+     */
+    @Override
+    public void search(String searchText, int maxResults, Consumer<List<PDFView.SearchResult>> resultConsumer, ResultCountConsumer countConsumer, BooleanSupplier cancelled) {
+        ResultLimit limit = new ResultLimit(maxResults);
 
-            @Override
-            protected void startPage(PDPage page) {
-                pageNumber++;
+        List<PDFView.SearchResult> recentResults = searchHistory.getResults(searchText);
+        if (recentResults != null) {
+            int start = 0;
+            for (int index = 1; index <= recentResults.size(); index++) {
+                if (index == recentResults.size() || recentResults.get(index).getPageNumber() != recentResults.get(start).getPageNumber()) {
+                    List<PDFView.SearchResult> pageResults = recentResults.subList(start, index);
+                    if (limit.tryAdd(pageResults.size())) {
+                        resultConsumer.accept(new ArrayList<>(pageResults));
+                    } else {
+                        countConsumer.accept(pageResults.getFirst().getPageNumber(), pageResults.size());
+                    }
+                    start = index;
+                }
             }
+            return;
+        }
+
+        int maxPendingRanges = Runtime.getRuntime().availableProcessors() * 2;
+
+        // only the pages that might contain the text if the search index is enabled, otherwise all pages
+        BitSet candidatePages = textLayer.getCandidatePages(searchText);
+
+        // a recent search for a part of the text might have narrowed it down even further
+        BitSet recentPages = searchHistory.getCandidatePages(searchText);
+        if (recentPages != null) {
+            candidatePages.and(recentPages);
+        }
+
+        List<PDFView.SearchResult> results = new ArrayList<>();
+        BitSet pages = new BitSet(numberOfPages);
+
+        // the ranges also stop once the search is over, e.g. because another range failed
+        AtomicBoolean stopped = new AtomicBoolean();
+        BooleanSupplier rangeCancelled = () -> stopped.get() || cancelled.getAsBoolean();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Deque<Future<List<PageHits>>> pendingRanges = new ArrayDeque<>();
+        boolean interrupted = false;
+        try {
+            int nextPage = candidatePages.nextSetBit(0);
+            while ((nextPage >= 0 || !pendingRanges.isEmpty()) && !cancelled.getAsBoolean()) {
+                while (nextPage >= 0 && pendingRanges.size() < maxPendingRanges) {
+                    int[] pageNumbers = new int[TEXT_BATCH_SIZE];
+                    int count = 0;
+                    for (; nextPage >= 0 && count < pageNumbers.length; nextPage = candidatePages.nextSetBit(nextPage + 1)) {
+                        pageNumbers[count++] = nextPage;
+                    }
 
-            @Override
-            protected void writeString(String text, List<TextPosition> textPositions) {
-                if (StringUtils.containsIgnoreCase(text, searchText)) {
-                    PDFView.SearchResult
-                            result = new PDFView.SearchResult(searchText, text, pageNumber, calculateMarkerPosition(searchText, text, textPositions));
-                    results.add(result);
+                    int[] range = Arrays.copyOf(pageNumbers, count);
+                    pendingRanges.add(executor.submit(() -> searchPages(searchText, range, rangeCancelled)));
+                }
+
+                List<PageHits> rangeHits = pendingRanges.poll().get();
+                for (int index = 0; index < rangeHits.size() && !cancelled.getAsBoolean(); index++) {
+                    PageHits pageHits = rangeHits.get(index);
+                    pages.set(pageHits.pageNumber());
+                    if (limit.tryAdd(pageHits.hits().length)) {
+                        List<PDFView.SearchResult> pageResults = createSearchResults(searchText, pageHits);
+                        results.addAll(pageResults);
+                        resultConsumer.accept(pageResults);
+                    } else {
+                        countConsumer.accept(pageHits.pageNumber(), pageHits.hits().length);
+                    }
                 }
             }
-        };
 
-        try (PDDocument doc = createDocument()) {
-            stripper.writeText(doc, Writer.nullWriter());
-        } catch (IOException e) {
+            // only complete searches can be reused, the results only if there are not too many
+            if (!cancelled.getAsBoolean()) {
+                searchHistory.add(searchText, limit.isReached() ? null : results, pages);
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
             throw new DocumentProcessingException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new DocumentProcessingException(e.getCause());
+        } finally {
+            // #21: the ranges must not be interrupted, which closing the executor would do after an
+            // interrupt, so they get stopped and waited for instead
+            stopped.set(true);
+            pendingRanges.forEach(range -> range.cancel(false));
+            executor.shutdown();
+            while (!executor.isTerminated()) {
+                try {
+                    executor.awaitTermination(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
         }
+    }
 
-        return results;
+    private List<PageHits> searchPages(String searchText, int[] pageNumbers, BooleanSupplier cancelled) {
+        List<PageHits> rangeHits = new ArrayList<>();
+        for (int index = 0; index < pageNumbers.length && !cancelled.getAsBoolean(); index++) {
+            int[] hits = getPageText(pageNumbers[index]).findLines(searchText);
+            if (hits.length > 0) {
+                rangeHits.add(new PageHits(pageNumbers[index], hits));
+            }
+        }
+        return rangeHits;
     }
 
     @Override
-    public void close() {
+    public List<PDFView.SearchResult> getSearchResults(String searchText, int pageNumber) {
+        return createSearchResults(searchText, new PageHits(pageNumber, getPageText(pageNumber).findLines(searchText)));
+    }
+
+    private List<PDFView.SearchResult> createSearchResults(String searchText, PageHits pageHits) {
+        PageText pageText = getPageText(pageHits.pageNumber());
+
+        List<PDFView.SearchResult> results = new ArrayList<>(pageHits.hits().length);
+        for (int index : pageHits.hits()) {
+            int line = pageText.getLineOf(index);
+            Rectangle2D marker = pageText.getMarker(index, index + searchText.length());
+            results.add(new PDFView.SearchResult(searchText, pageText.getLine(line), pageHits.pageNumber(), marker));
+        }
+        results.sort(null);
+        return results;
+    }
+
+    /*
+     * The positions of the hits on a page, see PageText.findLines().
+     */
+    private record PageHits(int pageNumber, int[] hits) {
+    }
+
+    /*
+     * Counts the results passed on by a search. Once a page does not fit anymore, the limit has
+     * been reached for all following pages, too, so the results are always the first ones.
+     */
+    private static final class ResultLimit {
+
+        private final int maxResults;
+        private int resultCount;
+        private boolean reached;
+
+        ResultLimit(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        boolean tryAdd(int count) {
+            if (!reached && count <= maxResults - resultCount) {
+                resultCount += count;
+                return true;
+            }
+            reached = true;
+            return false;
+        }
+
+        boolean isReached() {
+            return reached;
+        }
+    }
+
+    /*
+     * Returns the text of the given page, extracting it first if the background thread has not
+     * reached the page yet. Pages that have not been extracted yet get extracted together with
+     * the page, as a single pass over several pages is much cheaper than one pass per page.
+     */
+    private PageText getPageText(int pageNumber) {
+        PageText pageText = textLayer.getPage(pageNumber);
+        if (pageText != null) {
+            return pageText;
+        }
+
+        if (pageNumber < 0 || pageNumber >= numberOfPages) {
+            throw new IndexOutOfBoundsException("page number " + pageNumber + " is out of range [0, " + numberOfPages + ")");
+        }
+
+        RenderContext context = acquireRenderContext();
         try {
-            document.close();
+            // the page might already have been dropped again, see setTextLayerPreloading()
+            return textLayer.index(context.getDocument(), pageNumber, Math.min(numberOfPages, pageNumber + TEXT_BATCH_SIZE));
         } catch (IOException e) {
             throw new DocumentProcessingException(e);
+        } finally {
+            releaseRenderContext(context);
         }
     }
 
-    private Rectangle2D calculateMarkerPosition(String searchText, String snippetText, List<TextPosition> textPositions) {
-        int textPositionStartIndex = calculateTextPositionStartIndex(searchText, snippetText, textPositions);
+    /**
+     * Closes the document. Document instances that are currently used by another thread get
+     * closed as soon as that thread is done with them. The file gets unmapped, and deleted if it
+     * is a temporary one, once the last instance has been closed, including the instances of
+     * pageables that are still in use, see {@link #getPageable()}.
+     */
+    @Override
+    public void close() {
+        IOException exception = null;
 
-        float x1 = Float.MAX_VALUE;
-        float x2 = 0;
-        float y1 = Float.MAX_VALUE;
-        float y2 = 0;
+        // the geometry document has to be closed before the file gets released by the last context
+        synchronized (geometryLock) {
+            synchronized (renderContexts) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
 
-        for (int textPositionIndex = textPositionStartIndex; textPositionIndex < textPositionStartIndex + searchText.length(); textPositionIndex++) {
-            TextPosition position = textPositions.get(textPositionIndex);
+                closeGeometryDocument();
 
-            x1 = Math.min(x1, position.getXDirAdj());
-            x2 = Math.max(x2, position.getXDirAdj() + position.getWidth());
-            y1 = Math.min(y1, position.getYDirAdj() - position.getHeight());
-            y2 = Math.max(y2, position.getYDirAdj());
+                RenderContext context;
+                while ((context = idleRenderContexts.poll()) != null) {
+                    try {
+                        closeRenderContext(context);
+                    } catch (IOException e) {
+                        exception = e;
+                    }
+                }
+            }
         }
 
-        x1 -= 2;
-        x2 += 2;
-        y1 -= 2;
-        y2 += 2;
+        searchHistory.clear();
 
-        return new Rectangle2D(x1, y1, x2 - x1, y2 - y1);
+        if (exception != null) {
+            throw new DocumentProcessingException(exception);
+        }
+    }
+
+    @Override
+    public Selection getSelection(int pageNumber, Point2D start, Point2D end, Selection.Mode mode) {
+        return getPageText(pageNumber).getSelection(pageNumber, start, end, mode);
     }
 
     /**
-     * Note that the number of textPositions might not be equal to the length of the snippetText.
-     * So we need to account for that.
-     * <p>
-     * See: org.apache.pdfbox.text.PDFTextStripper.WordWithTextPositions
+     * Bundles a document instance with the renderer used for it. The context lives as long
+     * as the document, so the renderer and its rendering hints are set up only once instead of
+     * on every page render. The resources that PDFBox decodes while rendering (fonts, color
+     * spaces, patterns) are cached by the document itself, they get reused because the pool
+     * keeps its document instances open.
      */
-    private int calculateTextPositionStartIndex(String searchText, String snippetText, List<TextPosition> textPositions) {
+    private static final class RenderContext {
+
+        private final PDDocument document;
+        private final CancellableRenderer renderer;
+        private final Map<RenderQuality, RenderingHints> renderingHints = new EnumMap<>(RenderQuality.class);
+
+        RenderContext(PDDocument document) {
+            this.document = document;
+
+            for (RenderQuality quality : RenderQuality.values()) {
+                renderingHints.put(quality, createRenderingHints(quality));
+            }
+
+            renderer = new CancellableRenderer(document);
+            renderer.setRenderingHints(renderingHints.get(RenderQuality.HIGH));
+            renderer.setDefaultDestination(RenderDestination.VIEW);
+        }
+
+        private static RenderingHints createRenderingHints(RenderQuality quality) {
+            RenderingHints hints = new RenderingHints(RenderingHints.KEY_ANTIALIASING, quality.isAntialiasing() ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+            hints.put(RenderingHints.KEY_RENDERING, quality.isQualityPreferred() ? RenderingHints.VALUE_RENDER_QUALITY : RenderingHints.VALUE_RENDER_SPEED);
+            if (quality.isQualityPreferred()) {
+                hints.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            } else {
+                hints.put(RenderingHints.KEY_INTERPOLATION, quality.isAntialiasing() ? RenderingHints.VALUE_INTERPOLATION_BILINEAR : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            }
+            return hints;
+        }
 
-        int snippetTextStartIndex = snippetText.toLowerCase().indexOf(searchText.toLowerCase());
+        /*
+         * Renders the whole page into a new image via PDFRenderer.renderImage(), which also passes
+         * the image to PDFBox as the backdrop of transparency groups. The image is of type
+         * TYPE_INT_RGB for opaque qualities, otherwise of type TYPE_INT_ARGB.
+         */
+        BufferedImage renderImage(int pageNumber, float scale, RenderQuality quality, BooleanSupplier cancelled) throws IOException {
+            prepare(quality, cancelled);
+            try {
+                BufferedImage image = renderer.renderImage(pageNumber, scale, quality.isOpaque() ? ImageType.RGB : ImageType.ARGB, RenderDestination.VIEW);
+                checkCancelled(pageNumber, cancelled);
+                return image;
+            } catch (RenderCancelledException e) {
+                throw new CancellationException("rendering of page " + pageNumber + " got cancelled");
+            } finally {
+                renderer.cancelled = null;
+            }
+        }
 
-        int startIndexDecreaseDelta = 0;
+        /*
+         * Renders the page into the given graphics. A cancelled rendering leaves the graphics
+         * partially painted, but the document itself stays intact, as PDFBox only gets stopped
+         * between two operators of a content stream.
+         */
+        void render(int pageNumber, Graphics2D graphics, float scale, RenderQuality quality, BooleanSupplier cancelled) throws IOException {
+            prepare(quality, cancelled);
+            try {
+                renderer.renderPageToGraphics(pageNumber, graphics, scale, scale, RenderDestination.VIEW);
+                checkCancelled(pageNumber, cancelled);
+            } catch (RenderCancelledException e) {
+                throw new CancellationException("rendering of page " + pageNumber + " got cancelled");
+            } finally {
+                renderer.cancelled = null;
+            }
+        }
 
-        // If any TextPosition (up to the snippetTextStartIndex) contains more then one character, we have to account for that.
-        for (int i = 0; i < snippetTextStartIndex; i++) {
-            int numberOfCharactersInTextPosition = textPositions.get(i).getUnicode().length();
-            if (numberOfCharactersInTextPosition > 1) {
-                startIndexDecreaseDelta = startIndexDecreaseDelta + (numberOfCharactersInTextPosition - 1);
+        /*
+         * The page drawer only checks for cancellation before an operator, so a rendering that
+         * gets cancelled during its last operator returns normally, possibly with parts of the
+         * page missing.
+         */
+        private static void checkCancelled(int pageNumber, BooleanSupplier cancelled) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("rendering of page " + pageNumber + " got cancelled");
             }
         }
 
-        return snippetTextStartIndex - startIndexDecreaseDelta;
+        private void prepare(RenderQuality quality, BooleanSupplier cancelled) {
+            renderer.cancelled = cancelled;
+            renderer.setRenderingHints(renderingHints.get(quality));
+            renderer.setSubsamplingAllowed(quality.isSubsamplingAllowed());
+        }
+
+        PDDocument getDocument() {
+            return document;
+        }
     }
 
-    // This method is synchronized to avoid multiple selection service calls at the same time
-    @Override
-    public synchronized Selection getSelection(int pageNumber, Point2D start, Point2D end, Selection.Mode mode) {
-        if (textPositionExtractor == null || textPositionExtractor.getPageNumber() != pageNumber) {
-            textPositionExtractor = new SelectionExtractor(pageNumber);
-            try (PDDocument doc = createDocument()) { // TODO :: recreating document is expensive 
-                textPositionExtractor.writeText(doc, Writer.nullWriter());
-            } catch (IOException e) { }
+    /*
+     * A renderer whose page drawers check for cancellation before each operator of a content
+     * stream. Interrupting the render thread instead is not an option, as an interrupted file
+     * channel gets closed and the document would no longer be able to render anything (#21).
+     */
+    private static final class CancellableRenderer extends PDFRenderer {
+
+        // only accessed by the thread that currently owns the render context
+        private BooleanSupplier cancelled;
+
+        CancellableRenderer(PDDocument document) {
+            super(document);
+        }
+
+        @Override
+        protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+            BooleanSupplier cancelled = this.cancelled;
+            if (cancelled == null) {
+                return super.createPageDrawer(parameters);
+            }
+
+            return new PageDrawer(parameters) {
+                @Override
+                protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+                    if (cancelled.getAsBoolean()) {
+                        throw new RenderCancelledException();
+                    }
+                    super.processOperator(operator, operands);
+                }
+            };
+        }
+    }
+
+    /*
+     * Unchecked, because PDFBox only logs the IOExceptions of some operators, e.g. of those
+     * drawing a form XObject, and would carry on with the following operators.
+     */
+    private static final class RenderCancelledException extends RuntimeException {
+
+        RenderCancelledException() {
+            super(null, null, false, false);
         }
-        return textPositionExtractor.getSelection(pageNumber, start, end, mode);
     }
 }
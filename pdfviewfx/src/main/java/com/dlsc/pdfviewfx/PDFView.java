@@ -1,10 +1,14 @@
 package com.dlsc.pdfviewfx;
 
 import com.dlsc.pdfviewfx.PDFView.Document.DocumentProcessingException;
+import com.dlsc.pdfviewfx.impl.ProgressInputStream;
 import com.dlsc.pdfviewfx.skins.PDFViewSkin;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.geometry.Dimension2D;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.control.ContextMenu;
@@ -15,13 +19,21 @@ import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.paint.Color;
+import javafx.util.Duration;
 
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.awt.print.Pageable;
 import java.io.File;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -40,6 +52,8 @@ public class PDFView extends Control {
         getStyleClass().add("pdf-view");
         setFocusTraversable(false);
 
+        loading.bind(loadTask.isNotNull());
+
         zoomFactorProperty().addListener(it -> {
             if (getZoomFactor() < 1) {
                 throw new IllegalArgumentException("zoom factor can not be smaller than 1");
@@ -143,8 +157,9 @@ public class PDFView extends Control {
 
     /**
      * Caching thumbnails can be useful for low powered systems with enough memory. The default value
-     * is "true". When set to "true" each thumbnail image will be added to a hashmap cache, hence making it
-     * necessary to only render once.
+     * is "true". When set to "true" each thumbnail image will be added to a cache, hence making it
+     * necessary to only render once. The memory used by the cache is limited by
+     * {@link #thumbnailCacheLimitProperty()}.
      */
     private final BooleanProperty cacheThumbnails = new SimpleBooleanProperty(this, "cacheThumbnails", true);
 
@@ -160,6 +175,183 @@ public class PDFView extends Control {
         this.cacheThumbnails.set(cacheThumbnails);
     }
 
+    /**
+     * The maximum number of bytes that the pixels of the cached thumbnails may use. When the limit
+     * gets exceeded the least recently used thumbnails will be removed from the cache. The default
+     * value is 128 MB.
+     *
+     * @see #cacheThumbnailsProperty()
+     */
+    private final LongProperty thumbnailCacheLimit = new SimpleLongProperty(this, "thumbnailCacheLimit", 128L * 1024 * 1024);
+
+    public final long getThumbnailCacheLimit() {
+        return thumbnailCacheLimit.get();
+    }
+
+    public final LongProperty thumbnailCacheLimitProperty() {
+        return thumbnailCacheLimit;
+    }
+
+    public final void setThumbnailCacheLimit(long thumbnailCacheLimit) {
+        this.thumbnailCacheLimit.set(thumbnailCacheLimit);
+    }
+
+    /**
+     * The maximum number of bytes that the pixels of the cached main area pages may use. Pages get
+     * cached per page number and scale, so going back to a page that has already been shown at the
+     * current zoom factor does not require rendering it again. When the limit gets exceeded the least
+     * recently used pages will be removed from the cache. Pages that are larger than the limit will
+     * not be cached at all. The default value is 256 MB.
+     */
+    private final LongProperty pageCacheLimit = new SimpleLongProperty(this, "pageCacheLimit", 256L * 1024 * 1024);
+
+    public final long getPageCacheLimit() {
+        return pageCacheLimit.get();
+    }
+
+    public final LongProperty pageCacheLimitProperty() {
+        return pageCacheLimit;
+    }
+
+    public final void setPageCacheLimit(long pageCacheLimit) {
+        this.pageCacheLimit.set(pageCacheLimit);
+    }
+
+    /**
+     * The number of background threads used for rendering pages and thumbnails. Independent pages
+     * can be rendered in parallel when the document supports it, see
+     * {@link Document#getMaxConcurrentRenders()}. The default value is the number of available
+     * processors, but at most "4".
+     */
+    private final IntegerProperty renderWorkerCount = new SimpleIntegerProperty(this, "renderWorkerCount", Math.min(4, Runtime.getRuntime().availableProcessors())) {
+        @Override
+        public void set(int newValue) {
+            if (newValue < 1) {
+                throw new IllegalArgumentException("render worker count must be at least 1 but was " + newValue);
+            }
+            super.set(newValue);
+        }
+    };
+
+    public final int getRenderWorkerCount() {
+        return renderWorkerCount.get();
+    }
+
+    public final IntegerProperty renderWorkerCountProperty() {
+        return renderWorkerCount;
+    }
+
+    public final void setRenderWorkerCount(int renderWorkerCount) {
+        this.renderWorkerCount.set(renderWorkerCount);
+    }
+
+    /**
+     * The directory used for persisting thumbnails across sessions. Thumbnails are stored per
+     * document content, page, scale, and render quality, thumbnails embedded in the document per
+     * document content and page only. Reopening an unchanged document therefore shows its
+     * thumbnails without rendering or decoding them again. A value of null disables the
+     * store. The default value is null.
+     *
+     * @see Document#getContentHash()
+     * @see #thumbnailStoreLimitProperty()
+     */
+    private final ObjectProperty<File> thumbnailStoreDirectory = new SimpleObjectProperty<>(this, "thumbnailStoreDirectory");
+
+    public final File getThumbnailStoreDirectory() {
+        return thumbnailStoreDirectory.get();
+    }
+
+    public final ObjectProperty<File> thumbnailStoreDirectoryProperty() {
+        return thumbnailStoreDirectory;
+    }
+
+    public final void setThumbnailStoreDirectory(File thumbnailStoreDirectory) {
+        this.thumbnailStoreDirectory.set(thumbnailStoreDirectory);
+    }
+
+    /**
+     * The maximum number of bytes that the files inside the thumbnail store directory may use.
+     * When the limit gets exceeded the least recently used thumbnails will be deleted. The
+     * default value is 64 MB.
+     *
+     * @see #thumbnailStoreDirectoryProperty()
+     */
+    private final LongProperty thumbnailStoreLimit = new SimpleLongProperty(this, "thumbnailStoreLimit", 64L * 1024 * 1024);
+
+    public final long getThumbnailStoreLimit() {
+        return thumbnailStoreLimit.get();
+    }
+
+    public final LongProperty thumbnailStoreLimitProperty() {
+        return thumbnailStoreLimit;
+    }
+
+    public final void setThumbnailStoreLimit(long thumbnailStoreLimit) {
+        this.thumbnailStoreLimit.set(thumbnailStoreLimit);
+    }
+
+    /**
+     * The number of pages that will be rendered ahead of time in the direction in which the user
+     * has been navigating, e.g. the next two pages after going forward from page 5 to page 6. These
+     * pages get rendered once the current page is done and end up in the page cache, so turning to
+     * them does not require any waiting. A value of "0" disables prefetching. The default value is "2".
+     *
+     * @see #pageCacheLimitProperty()
+     */
+    private final IntegerProperty prefetchPageCount = new SimpleIntegerProperty(this, "prefetchPageCount", 2);
+
+    public final int getPrefetchPageCount() {
+        return prefetchPageCount.get();
+    }
+
+    public final IntegerProperty prefetchPageCountProperty() {
+        return prefetchPageCount;
+    }
+
+    public final void setPrefetchPageCount(int prefetchPageCount) {
+        this.prefetchPageCount.set(prefetchPageCount);
+    }
+
+    /**
+     * A flag used to control whether a new page will first be shown in low resolution while the
+     * full resolution image is still being rendered. The low resolution version is either the
+     * cached thumbnail of the page or a quick rendering at thumbnail size.
+     * The default value is "true".
+     */
+    private final BooleanProperty progressiveRendering = new SimpleBooleanProperty(this, "progressiveRendering", true);
+
+    public final boolean isProgressiveRendering() {
+        return progressiveRendering.get();
+    }
+
+    public final BooleanProperty progressiveRenderingProperty() {
+        return progressiveRendering;
+    }
+
+    public final void setProgressiveRendering(boolean progressiveRendering) {
+        this.progressiveRendering.set(progressiveRendering);
+    }
+
+    /**
+     * A flag used to control whether the pages will be rendered in tiles when the view is
+     * zoomed in, in single page mode as well as in continuous mode. The page itself will then only be rendered at {@link #pageScaleProperty()} and
+     * only the tiles that intersect the visible area will be rendered at the full zoom factor.
+     * This keeps the memory requirements low at high zoom factors. The default value is "true".
+     */
+    private final BooleanProperty tiledRendering = new SimpleBooleanProperty(this, "tiledRendering", true);
+
+    public final boolean isTiledRendering() {
+        return tiledRendering.get();
+    }
+
+    public final BooleanProperty tiledRenderingProperty() {
+        return tiledRendering;
+    }
+
+    public final void setTiledRendering(boolean tiledRendering) {
+        this.tiledRendering.set(tiledRendering);
+    }
+
     /**
      * Sets the upper bounds for zoom operations. The default value is "4".
      */
@@ -194,6 +386,26 @@ public class PDFView extends Control {
         this.zoomFactor.set(zoomFactor);
     }
 
+    /**
+     * The time that the zoom factor has to stay unchanged before the pages get rendered at the new
+     * zoom factor. While zooming, the current image simply gets scaled, so the user gets immediate
+     * feedback without every step of the zoom slider or the mouse wheel triggering a render. A value
+     * of null or zero renders the pages right away. The default value is 150 milliseconds.
+     */
+    private final ObjectProperty<Duration> zoomRenderDelay = new SimpleObjectProperty<>(this, "zoomRenderDelay", Duration.millis(150));
+
+    public final Duration getZoomRenderDelay() {
+        return zoomRenderDelay.get();
+    }
+
+    public final ObjectProperty<Duration> zoomRenderDelayProperty() {
+        return zoomRenderDelay;
+    }
+
+    public final void setZoomRenderDelay(Duration zoomRenderDelay) {
+        this.zoomRenderDelay.set(zoomRenderDelay);
+    }
+
     /**
      * The page rotation in degrees. Supported values are only "0", "90", "180", "270", "360", ...
      * multiples of "90".
@@ -314,18 +526,50 @@ public class PDFView extends Control {
     }
 
     /**
-     * The resolution / scale at which the thumbnails will be rendered. The default value is "1".
+     * A flag that controls whether the pages will be shown below each other in a single scrolling
+     * flow instead of one page at a time. Only the pages in or near the viewport get rendered, all
+     * other pages are represented by placeholders of the correct size. The current page is the page
+     * in the middle of the viewport. Tiled rendering and text selection work the same way as in
+     * single page mode. Selecting a search result scrolls to its page and highlights it, but does
+     * not animate it. The default value is "false".
+     */
+    private final BooleanProperty continuousScrolling = new SimpleBooleanProperty(this, "continuousScrolling", false);
+
+    public final boolean isContinuousScrolling() {
+        return continuousScrolling.get();
+    }
+
+    public final BooleanProperty continuousScrollingProperty() {
+        return continuousScrolling;
+    }
+
+    public final void setContinuousScrolling(boolean continuousScrolling) {
+        this.continuousScrolling.set(continuousScrolling);
+    }
+
+    /**
+     * The resolution / scale at which the thumbnails used to be rendered. Thumbnails are now rendered
+     * at exactly the size at which they are displayed, based on {@link #thumbnailSizeProperty()}, the
+     * size of the page, and the output scale of the screen. Setting this property has no effect
+     * at all, neither on the size of the thumbnails nor on the thumbnails in the thumbnail store.
+     * The default value is "1".
+     *
+     * @deprecated this property is ignored by the view, use {@link #thumbnailSizeProperty()} instead
      */
+    @Deprecated
     private final FloatProperty thumbnailPageScale = new SimpleFloatProperty(this, "thumbnailScale", 1f);
 
+    @Deprecated
     public final float getThumbnailPageScale() {
         return thumbnailPageScale.get();
     }
 
+    @Deprecated
     public final FloatProperty thumbnailPageScaleProperty() {
         return thumbnailPageScale;
     }
 
+    @Deprecated
     public final void setThumbnailPageScale(float thumbnailPageScale) {
         this.thumbnailPageScale.set(thumbnailPageScale);
     }
@@ -350,7 +594,9 @@ public class PDFView extends Control {
     }
 
     /**
-     * The size used for the images displayed in the thumbnail view. The default value is "200".
+     * The size used for the images displayed in the thumbnail view. This is the length of the longer
+     * side of a page. Thumbnails get rendered at this size, multiplied by the output scale of the
+     * screen. The default value is "200".
      */
     private final DoubleProperty thumbnailSize = new SimpleDoubleProperty(this, "thumbnailSize", 200d);
 
@@ -404,7 +650,9 @@ public class PDFView extends Control {
     private final ListProperty<SearchResult> searchResults = new SimpleListProperty<>(this, "searchResults", FXCollections.observableArrayList());
 
     /**
-     * Stores the list of currently found search results.
+     * Stores the list of currently found search results. While a search is running the results
+     * get added in batches, as soon as they are found. The list might not contain all results,
+     * see {@link #maxSearchResultsProperty()}.
      *
      * @return the search results
      * @see #setSearchText(String)
@@ -421,6 +669,29 @@ public class PDFView extends Control {
         this.searchResults.set(searchResults);
     }
 
+    /**
+     * The maximum number of search results that will be added to the list of search results
+     * while searching. Once the limit has been reached, only the number of occurrences gets
+     * determined for the remaining pages, their results get added when the pages are shown or
+     * appear in the list of search results. This keeps searching for a common word in a large
+     * document from creating hundreds of thousands of results. The default value is "10000".
+     *
+     * @see #getSearchResults()
+     */
+    private final IntegerProperty maxSearchResults = new SimpleIntegerProperty(this, "maxSearchResults", 10_000);
+
+    public final int getMaxSearchResults() {
+        return maxSearchResults.get();
+    }
+
+    public final IntegerProperty maxSearchResultsProperty() {
+        return maxSearchResults;
+    }
+
+    public final void setMaxSearchResults(int maxSearchResults) {
+        this.maxSearchResults.set(maxSearchResults);
+    }
+
     private final ObjectProperty<SearchResult> selectedSearchResult = new SimpleObjectProperty<>(this, "selectedSearchResult");
 
     /**
@@ -531,19 +802,283 @@ public class PDFView extends Control {
      */
     public final void load(Supplier<Document> supplier) {
         Objects.requireNonNull(supplier, "supplier can not be null");
+        cancelLoading();
         setDocument(supplier.get());
     }
 
+    /**
+     * Loads the given PDF file in a background thread. The document will be shown once it has been
+     * loaded, while it is loading the view shows a progress indicator. The document gets shown as
+     * soon as it has been parsed, the geometry of its pages gets resolved in the background.
+     *
+     * @param file a file containing a PDF document
+     * @return the task that loads the document, e.g. for cancelling it or for handling failures
+     * @see #loadingProperty()
+     */
+    public final Task<Document> loadAsync(File file) {
+        Objects.requireNonNull(file, "file can not be null");
+        return loadAsync(task -> new PDFBoxDocument(file));
+    }
+
+    /**
+     * Loads the given PDF stream in a background thread. While the stream is being read, the progress
+     * of the returned task reflects the number of bytes read so far. As the total size of a stream is
+     * unknown, the progress itself is indeterminate, but the message of the task contains the amount
+     * of data read.
+     *
+     * @param stream a stream returning a PDF document
+     * @return the task that loads the document, e.g. for cancelling it or for handling failures
+     * @see #loadingProperty()
+     */
+    public final Task<Document> loadAsync(InputStream stream) {
+        Objects.requireNonNull(stream, "stream can not be null");
+        return loadAsync(task -> new PDFBoxDocument(new ProgressInputStream(stream, task::bytesRead, task::isCancelled)));
+    }
+
+    /**
+     * Retrieves the document from the given supplier in a background thread.
+     *
+     * @param supplier Document supplier.
+     * @return the task that loads the document, e.g. for cancelling it or for handling failures
+     * @see #loadingProperty()
+     */
+    public final Task<Document> loadAsync(Supplier<Document> supplier) {
+        Objects.requireNonNull(supplier, "supplier can not be null");
+        return loadAsync(task -> supplier.get());
+    }
+
+    private Task<Document> loadAsync(Function<LoadTask, Document> loader) {
+        cancelLoading();
+
+        // event handlers instead of the "onXYZ" properties, so that callers can still use those
+        LoadTask task = new LoadTask(loader);
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, evt -> {
+            if (getLoadTask() == task) {
+                loadTask.set(null);
+                setDocument(task.getValue());
+            } else {
+                // another load has been started in the meantime, nobody is going to show this document
+                task.discardDocument();
+            }
+        });
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, evt -> {
+            if (getLoadTask() == task) {
+                loadTask.set(null);
+            }
+        });
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, evt -> {
+            if (getLoadTask() == task) {
+                loadTask.set(null);
+            }
+            task.discardDocument();
+        });
+
+        loadTask.set(task);
+
+        Thread thread = new Thread(task, PDFView.class.getSimpleName() + " Loader");
+        thread.setDaemon(true);
+        thread.start();
+
+        return task;
+    }
+
+    private void cancelLoading() {
+        Task<Document> task = getLoadTask();
+        if (task != null) {
+            loadTask.set(null);
+            task.cancel();
+        }
+    }
+
+    private static final class LoadTask extends Task<Document> {
+
+        private final Function<LoadTask, Document> loader;
+
+        /*
+         * The document holds resources, e.g. a temporary file, so it has to be closed if it does
+         * not get shown. A task that gets cancelled while returning the document drops its value,
+         * so the document gets kept here until it is either shown or closed.
+         */
+        private final AtomicReference<Document> loadedDocument = new AtomicReference<>();
+
+        LoadTask(Function<LoadTask, Document> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        protected Document call() {
+            updateMessage("Loading document ...");
+
+            Document document = loader.apply(this);
+            loadedDocument.set(document);
+
+            if (isCancelled()) {
+                discardDocument();
+                return null;
+            }
+
+            updateProgress(1, 1);
+            return document;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return super.cancel(false); // #21: Must not interrupt pdfbox otherwise the PDDocument will no longer be able to render pages
+        }
+
+        private void bytesRead(long bytes) {
+            updateProgress(-1, -1);
+            updateMessage(String.format("Loading document ... %.1f MB", bytes / (1024d * 1024d)));
+        }
+
+        // closes the document unless it has already been closed
+        private void discardDocument() {
+            Document document = loadedDocument.getAndSet(null);
+            if (document != null) {
+                document.close();
+            }
+        }
+    }
+
+    /**
+     * The task that is currently loading a document in the background, if any.
+     *
+     * @see #loadAsync(File)
+     * @see #loadAsync(InputStream)
+     * @see #loadAsync(Supplier)
+     */
+    private final ReadOnlyObjectWrapper<Task<Document>> loadTask = new ReadOnlyObjectWrapper<>(this, "loadTask");
+
+    public final Task<Document> getLoadTask() {
+        return loadTask.get();
+    }
+
+    public final ReadOnlyObjectProperty<Task<Document>> loadTaskProperty() {
+        return loadTask.getReadOnlyProperty();
+    }
+
+    /**
+     * A flag signalling that a document is currently being loaded in the background.
+     *
+     * @see #loadTaskProperty()
+     */
+    private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper(this, "loading");
+
+    public final boolean isLoading() {
+        return loading.get();
+    }
+
+    public final ReadOnlyBooleanProperty loadingProperty() {
+        return loading.getReadOnlyProperty();
+    }
+
     /**
      * Un-loads currently loaded document.
      */
     public final void unload() {
+        cancelLoading();
         setDocument(null);
         setSearchText(null);
         setZoomFactor(1);
         setRotate(0);
     }
 
+    /**
+     * The render quality used for the thumbnails and for the low resolution previews shown by
+     * progressive rendering. The main page always gets rendered in {@link RenderQuality#HIGH}.
+     * The default value is {@link RenderQuality#FAST}.
+     *
+     * @see Document#renderPage(int, float, RenderQuality, BooleanSupplier)
+     */
+    private final ObjectProperty<RenderQuality> thumbnailRenderQuality = new SimpleObjectProperty<>(this, "thumbnailRenderQuality", RenderQuality.FAST);
+
+    public final RenderQuality getThumbnailRenderQuality() {
+        return thumbnailRenderQuality.get();
+    }
+
+    public final ObjectProperty<RenderQuality> thumbnailRenderQualityProperty() {
+        return thumbnailRenderQuality;
+    }
+
+    public final void setThumbnailRenderQuality(RenderQuality thumbnailRenderQuality) {
+        this.thumbnailRenderQuality.set(thumbnailRenderQuality);
+    }
+
+    /**
+     * The quality profiles supported by {@link Document#renderPage(int, float, RenderQuality, BooleanSupplier)}.
+     * Cheaper profiles are meant for small images like thumbnails, where the differences are hardly
+     * visible but the rendering time is noticeably shorter.
+     */
+    public enum RenderQuality {
+
+        /**
+         * Full quality, with transparent background, antialiasing, bicubic interpolation, and images
+         * decoded at full resolution.
+         */
+        HIGH(false, false, true, true),
+
+        /**
+         * Opaque white background, antialiasing, bilinear interpolation, and images may be decoded
+         * at a lower resolution (subsampling).
+         */
+        FAST(true, true, true, false),
+
+        /**
+         * Like {@link #FAST} but without antialiasing and with nearest neighbour interpolation.
+         */
+        DRAFT(true, true, false, false);
+
+        private final boolean opaque;
+        private final boolean subsamplingAllowed;
+        private final boolean antialiasing;
+        private final boolean qualityPreferred;
+
+        RenderQuality(boolean opaque, boolean subsamplingAllowed, boolean antialiasing, boolean qualityPreferred) {
+            this.opaque = opaque;
+            this.subsamplingAllowed = subsamplingAllowed;
+            this.antialiasing = antialiasing;
+            this.qualityPreferred = qualityPreferred;
+        }
+
+        /**
+         * Determines if the page gets rendered onto an opaque white background instead of a
+         * transparent one, which allows for cheaper compositing.
+         *
+         * @return true if the rendered image is opaque
+         */
+        public boolean isOpaque() {
+            return opaque;
+        }
+
+        /**
+         * Determines if images embedded in the page may be decoded at a lower resolution when
+         * they are larger than needed for the scale at which the page gets rendered.
+         *
+         * @return true if subsampling is allowed
+         */
+        public boolean isSubsamplingAllowed() {
+            return subsamplingAllowed;
+        }
+
+        /**
+         * Determines if shapes and text get antialiased.
+         *
+         * @return true if antialiasing is on
+         */
+        public boolean isAntialiasing() {
+            return antialiasing;
+        }
+
+        /**
+         * Determines if rendering quality is preferred over speed, e.g. for image interpolation.
+         *
+         * @return true if quality is preferred
+         */
+        public boolean isQualityPreferred() {
+            return qualityPreferred;
+        }
+    }
+
     /**
      * The interface that needs to be implemented by any model object that
      * represents a PDF document and that wants to be displayed by the view.
@@ -562,6 +1097,144 @@ public class PDFView extends Control {
          */
         BufferedImage renderPage(int pageNumber, float scale);
 
+        /**
+         * Renders the page specified by the given number at the given scale, but stops as soon
+         * as possible once the given supplier returns true. The view uses this method so that
+         * renderings of pages that are no longer needed do not keep the render threads busy.
+         * Implementations must not use thread interruption for this purpose, as interrupting
+         * an I/O operation might leave the underlying document in an unusable state.
+         * <p>
+         * The default implementation ignores the supplier and calls {@link #renderPage(int, float)}.
+         *
+         * @param pageNumber the page number
+         * @param scale      the scale
+         * @param cancelled  returns true when the rendering is no longer needed
+         * @return the generated buffered image
+         * @throws CancellationException if the rendering got cancelled
+         */
+        default BufferedImage renderPage(int pageNumber, float scale, BooleanSupplier cancelled) {
+            return renderPage(pageNumber, scale);
+        }
+
+        /**
+         * Renders the page specified by the given number at the given scale and in the given
+         * quality, but stops as soon as possible once the given supplier returns true.
+         * <p>
+         * The default implementation ignores the quality and calls
+         * {@link #renderPage(int, float, BooleanSupplier)}.
+         *
+         * @param pageNumber the page number
+         * @param scale      the scale
+         * @param quality    the quality profile
+         * @param cancelled  returns true when the rendering is no longer needed
+         * @return the generated buffered image
+         * @throws CancellationException if the rendering got cancelled
+         * @see PDFView#thumbnailRenderQualityProperty()
+         */
+        default BufferedImage renderPage(int pageNumber, float scale, RenderQuality quality, BooleanSupplier cancelled) {
+            return renderPage(pageNumber, scale, cancelled);
+        }
+
+        /**
+         * Renders a rectangular region of the page specified by the given number at the given
+         * scale. The region is specified in the coordinate space of the image that
+         * {@link #renderPage(int, float)} would return for the same scale. This is used for
+         * tiled rendering at high zoom factors, where rendering the whole page would require
+         * huge amounts of memory.
+         * <p>
+         * The default implementation renders the entire page and copies the requested region.
+         * Implementations should override this method if they are able to render only the
+         * requested region.
+         *
+         * @param pageNumber the page number
+         * @param scale      the scale
+         * @param region     the region to render, in pixels of the scaled page
+         * @return the generated buffered image, which has the size of the region
+         * @see PDFView#tiledRenderingProperty()
+         */
+        default BufferedImage renderPageRegion(int pageNumber, float scale, Rectangle2D region) {
+            return renderPageRegion(pageNumber, scale, region, () -> false);
+        }
+
+        /**
+         * Renders a rectangular region of the page, but stops as soon as possible once the
+         * given supplier returns true.
+         *
+         * @param pageNumber the page number
+         * @param scale      the scale
+         * @param region     the region to render, in pixels of the scaled page
+         * @param cancelled  returns true when the rendering is no longer needed
+         * @return the generated buffered image, which has the size of the region
+         * @throws CancellationException if the rendering got cancelled
+         * @see #renderPageRegion(int, float, Rectangle2D)
+         * @see #renderPage(int, float, BooleanSupplier)
+         */
+        default BufferedImage renderPageRegion(int pageNumber, float scale, Rectangle2D region, BooleanSupplier cancelled) {
+            BufferedImage pageImage = renderPage(pageNumber, scale, cancelled);
+
+            int x = (int) Math.max(0, region.getMinX());
+            int y = (int) Math.max(0, region.getMinY());
+            int width = (int) Math.max(1, Math.min(Math.ceil(region.getWidth()), pageImage.getWidth() - x));
+            int height = (int) Math.max(1, Math.min(Math.ceil(region.getHeight()), pageImage.getHeight() - y));
+
+            BufferedImage regionImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = regionImage.createGraphics();
+            graphics.drawImage(pageImage, -x, -y, null);
+            graphics.dispose();
+
+            return regionImage;
+        }
+
+        /**
+         * Returns the size of the page specified by the given number in PDF units (1/72 inch),
+         * as it will appear in the rendered image. The default implementation returns the
+         * size of an A4 page in portrait or landscape orientation, depending on
+         * {@link #isLandscape(int)}. Implementations should override this method to return
+         * the actual size.
+         *
+         * @param pageNumber the page number
+         * @return the size of the page
+         */
+        default Dimension2D getPageSize(int pageNumber) {
+            return isLandscape(pageNumber) ? new Dimension2D(842, 595) : new Dimension2D(595, 842);
+        }
+
+        /**
+         * Returns the thumbnail image embedded in the document for the given page, if any. The view
+         * shows this image instead of rendering the thumbnail. The default implementation returns null.
+         *
+         * @param pageNumber the page number
+         * @return the embedded thumbnail or null if the page does not have one
+         */
+        default BufferedImage getEmbeddedThumbnail(int pageNumber) {
+            return null;
+        }
+
+        /**
+         * Returns a hash of the content of the document, e.g. of the bytes of the PDF file. The
+         * hash is used to identify the document across sessions, for example for storing its
+         * thumbnails on disk. The default implementation returns null, which means that
+         * nothing will be stored for this document.
+         *
+         * @return the content hash or null if the document can not be identified
+         * @see PDFView#thumbnailStoreDirectoryProperty()
+         */
+        default String getContentHash() {
+            return null;
+        }
+
+        /**
+         * Returns the maximum number of threads that may call {@link #renderPage(int, float)}
+         * at the same time. The default implementation returns "1", which means that the view
+         * will never render more than one page of this document at a time.
+         *
+         * @return the maximum number of concurrent render calls
+         * @see PDFView#renderWorkerCountProperty()
+         */
+        default int getMaxConcurrentRenders() {
+            return 1;
+        }
+
         /**
          * Returns the total number of pages inside the document.
          *
@@ -621,6 +1294,109 @@ public class PDFView extends Control {
          * @return the list of search results
          */
         List<SearchResult> getSearchResults(String searchText);
+
+        /**
+         * Searches for the given text and passes the results to the given consumer as soon as
+         * they are found, so that they can be shown while the search is still running. The
+         * consumer receives the results of one page at a time, in the order of the pages. Pages
+         * without results are skipped.
+         * <p>
+         * The default implementation passes all results of {@link #getSearchResults(String)}
+         * at once. Implementations should override this method if they can find the results of
+         * a page before the remaining pages have been searched.
+         *
+         * @param searchText     the text for which to search
+         * @param resultConsumer receives the search results of each page, called on the searching thread
+         * @param cancelled      returns true when the search is no longer needed and should be stopped
+         */
+        default void search(String searchText, Consumer<List<SearchResult>> resultConsumer, BooleanSupplier cancelled) {
+            List<SearchResult> results = getSearchResults(searchText);
+            if (!results.isEmpty() && !cancelled.getAsBoolean()) {
+                resultConsumer.accept(results);
+            }
+        }
+
+        /**
+         * Searches like {@link #search(String, Consumer, BooleanSupplier)}, but only passes the
+         * results of the pages to the result consumer as long as the total number of results
+         * does not exceed the given limit. The results of a page are either passed completely
+         * or not at all. For each page after that, only the number of results gets passed to
+         * the count consumer, the results can be requested later via
+         * {@link #getSearchResults(String, int)}.
+         * <p>
+         * The default implementation still creates all results. Implementations should override
+         * this method if they can count the results of a page more cheaply.
+         *
+         * @param searchText     the text for which to search
+         * @param maxResults     the maximum number of results to pass to the result consumer
+         * @param resultConsumer receives the search results of each page, called on the searching thread
+         * @param countConsumer  receives the number of search results of the pages after the limit
+         *                       has been reached, called on the searching thread
+         * @param cancelled      returns true when the search is no longer needed and should be stopped
+         */
+        default void search(String searchText, int maxResults, Consumer<List<SearchResult>> resultConsumer, ResultCountConsumer countConsumer, BooleanSupplier cancelled) {
+            int[] resultCount = new int[1];
+            search(searchText, results -> {
+                // the results might belong to more than one page
+                int start = 0;
+                for (int index = 1; index <= results.size(); index++) {
+                    if (index == results.size() || results.get(index).getPageNumber() != results.get(start).getPageNumber()) {
+                        List<SearchResult> pageResults = results.subList(start, index);
+                        if (resultCount[0] >= 0 && resultCount[0] + pageResults.size() <= maxResults) {
+                            resultCount[0] += pageResults.size();
+                            resultConsumer.accept(new ArrayList<>(pageResults));
+                        } else {
+                            resultCount[0] = -1;
+                            countConsumer.accept(pageResults.getFirst().getPageNumber(), pageResults.size());
+                        }
+                        start = index;
+                    }
+                }
+            }, cancelled);
+        }
+
+        /**
+         * Returns the search results of a single page.
+         * <p>
+         * The default implementation searches the whole document and filters the results.
+         *
+         * @param searchText the text for which to search
+         * @param pageNumber the page number
+         * @return the search results of the page
+         */
+        default List<SearchResult> getSearchResults(String searchText, int pageNumber) {
+            return getSearchResults(searchText).stream()
+                    .filter(result -> result.getPageNumber() == pageNumber)
+                    .toList();
+        }
+
+        /**
+         * Receives the number of search results of a page.
+         *
+         * @see #search(String, int, Consumer, ResultCountConsumer, BooleanSupplier)
+         */
+        @FunctionalInterface
+        interface ResultCountConsumer {
+
+            /**
+             * Called for each page with search results.
+             *
+             * @param pageNumber  the page number
+             * @param resultCount the number of search results on the page
+             */
+            void accept(int pageNumber, int resultCount);
+        }
+
+        /**
+         * Determines whether the document has an index that makes searching fast enough to
+         * search on every key stroke. Otherwise the view waits for the user to stop typing
+         * before it starts searching.
+         *
+         * @return true if the document can be searched instantly
+         */
+        default boolean isSearchIndexed() {
+            return false;
+        }
     }
 
     /**
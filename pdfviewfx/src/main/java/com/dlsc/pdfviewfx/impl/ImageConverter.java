@@ -0,0 +1,71 @@
+package com.dlsc.pdfviewfx.impl;
+
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.IntBuffer;
+
+/**
+ * Converts the images returned by a document into JavaFX images.
+ * <p>
+ * Images of type {@link BufferedImage#TYPE_INT_ARGB_PRE} use the same pixel layout as JavaFX's
+ * {@link PixelFormat#getIntArgbPreInstance()}. Their pixel array gets wrapped by a {@link PixelBuffer}
+ * instead of being copied, which avoids allocating the memory for the page a second time. The same
+ * applies to opaque images of type {@link BufferedImage#TYPE_INT_RGB}, once the unused alpha byte of
+ * their pixels has been set. All other images get converted via
+ * {@link SwingFXUtils#toFXImage(BufferedImage, WritableImage)}.
+ */
+public final class ImageConverter {
+
+    private ImageConverter() {
+    }
+
+    /**
+     * Returns a JavaFX image for the given buffered image. The buffered image must not be
+     * modified afterwards, as it might share its pixels with the returned image.
+     *
+     * @param bufferedImage the image to convert
+     * @return the JavaFX image
+     */
+    public static Image toFXImage(BufferedImage bufferedImage) {
+        if (isWrappable(bufferedImage)) {
+            int[] pixels = ((DataBufferInt) bufferedImage.getRaster().getDataBuffer()).getData();
+            if (bufferedImage.getType() == BufferedImage.TYPE_INT_RGB) {
+                // Java2D ignores the upper byte of RGB pixels, JavaFX reads it as alpha
+                for (int i = 0; i < pixels.length; i++) {
+                    pixels[i] |= 0xFF000000;
+                }
+            }
+            PixelBuffer<IntBuffer> pixelBuffer = new PixelBuffer<>(bufferedImage.getWidth(), bufferedImage.getHeight(), IntBuffer.wrap(pixels), PixelFormat.getIntArgbPreInstance());
+            return new WritableImage(pixelBuffer);
+        }
+
+        return SwingFXUtils.toFXImage(bufferedImage, null);
+    }
+
+    private static boolean isWrappable(BufferedImage bufferedImage) {
+        if (bufferedImage.getType() != BufferedImage.TYPE_INT_ARGB_PRE && bufferedImage.getType() != BufferedImage.TYPE_INT_RGB) {
+            return false;
+        }
+
+        WritableRaster raster = bufferedImage.getRaster();
+
+        // sub-images share the data buffer of their parent, so their pixels do not start at index 0
+        if (raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0) {
+            return false;
+        }
+
+        return raster.getDataBuffer() instanceof DataBufferInt dataBuffer
+                && dataBuffer.getNumBanks() == 1
+                && dataBuffer.getOffset() == 0
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel
+                && sampleModel.getScanlineStride() == bufferedImage.getWidth();
+    }
+}
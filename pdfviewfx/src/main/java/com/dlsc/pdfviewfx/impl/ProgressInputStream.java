@@ -0,0 +1,72 @@
+package com.dlsc.pdfviewfx.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * An input stream that reports the number of bytes read so far and that stops reading
+ * once the given supplier signals that the reading is no longer needed.
+ */
+public final class ProgressInputStream extends FilterInputStream {
+
+    private final LongConsumer progressConsumer;
+    private final BooleanSupplier cancelled;
+
+    private long bytesRead;
+
+    /**
+     * Constructs a new stream.
+     *
+     * @param in               the stream to read from
+     * @param progressConsumer receives the total number of bytes read so far
+     * @param cancelled        returns true when the reading should be stopped
+     */
+    public ProgressInputStream(InputStream in, LongConsumer progressConsumer, BooleanSupplier cancelled) {
+        super(in);
+        this.progressConsumer = progressConsumer;
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkCancelled();
+        int b = super.read();
+        if (b != -1) {
+            progress(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkCancelled();
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            progress(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        checkCancelled();
+        long skipped = super.skip(n);
+        progress(skipped);
+        return skipped;
+    }
+
+    private void checkCancelled() throws InterruptedIOException {
+        if (cancelled.getAsBoolean()) {
+            throw new InterruptedIOException("reading has been cancelled after " + bytesRead + " bytes");
+        }
+    }
+
+    private void progress(long n) {
+        bytesRead += n;
+        progressConsumer.accept(bytesRead);
+    }
+}
@@ -0,0 +1,90 @@
+package com.dlsc.pdfviewfx.impl;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.dlsc.pdfviewfx.PDFView.SearchResult;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Remembers the results of the most recent searches of a document. A search for a text that has
+ * been searched for recently, e.g. after deleting the last character of the search text, can
+ * reuse the results. A search for a text that contains a recent search text, e.g. after typing
+ * another character, only needs to look at the pages where the recent search found something,
+ * because every hit of the longer text also is a hit of the shorter one.
+ * <p>
+ * The history is safe to be used by several threads.
+ */
+public final class SearchHistory {
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Constructs a new history.
+     *
+     * @param maxSize the maximum number of searches to remember
+     */
+    public SearchHistory(int maxSize) {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the results of a recent search for exactly the given text.
+     *
+     * @param searchText the search text
+     * @return the results or null if there was no such search or its results have not been remembered
+     */
+    public synchronized List<SearchResult> getResults(String searchText) {
+        Entry entry = entries.get(searchText);
+        return entry != null ? entry.results() : null;
+    }
+
+    /**
+     * Returns the pages that can contain the given text according to the recent searches, i.e.
+     * the smallest set of pages found by a recent search for a text contained in the given text.
+     * The case gets ignored, like it is by the search itself.
+     *
+     * @param searchText the search text
+     * @return the pages or null if no recent search narrows down the pages
+     */
+    public synchronized BitSet getCandidatePages(String searchText) {
+        BitSet candidatePages = null;
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            BitSet pages = entry.getValue().pages();
+            if (StringUtils.containsIgnoreCase(searchText, entry.getKey())
+                    && (candidatePages == null || pages.cardinality() < candidatePages.cardinality())) {
+                candidatePages = pages;
+            }
+        }
+        return candidatePages != null ? (BitSet) candidatePages.clone() : null;
+    }
+
+    /**
+     * Remembers a completed search.
+     *
+     * @param searchText the search text
+     * @param results    all results of the search or null if the search did not create all results,
+     *                   in which case only the pages will be reused
+     * @param pages      the pages with search results
+     */
+    public synchronized void add(String searchText, List<SearchResult> results, BitSet pages) {
+        entries.put(searchText, new Entry(results != null ? List.copyOf(results) : null, (BitSet) pages.clone()));
+    }
+
+    /**
+     * Forgets all searches.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private record Entry(List<SearchResult> results, BitSet pages) {
+    }
+}
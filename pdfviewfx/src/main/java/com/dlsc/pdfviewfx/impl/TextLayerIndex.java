@@ -0,0 +1,769 @@
+package com.dlsc.pdfviewfx.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.dlsc.pdfviewfx.Selection;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+
+/**
+ * The text layer of a document, i.e. the characters of each page together with their
+ * positions. Pages get extracted once via {@link #index(PDDocument, int, int)} and can then
+ * be searched and hit-tested without parsing the page again.
+ * <p>
+ * Optionally, the pages also get added to an inverted trigram index, which narrows a search
+ * down to the pages that might contain the search text.
+ * <p>
+ * The number of pages whose text is kept can be limited via {@link #setMaxPages(int)}, in which
+ * case the pages that have been extracted first get dropped first and will be extracted again
+ * when they are needed.
+ * <p>
+ * The index is safe to be used by several threads. A page is either fully indexed or not
+ * at all, indexing the same page twice is harmless.
+ */
+public final class TextLayerIndex {
+
+    private final AtomicReferenceArray<PageText> pages;
+    private volatile TrigramIndex trigramIndex;
+
+    // the order in which the pages have been extracted, only tracked while the pages are limited
+    private final ArrayDeque<Integer> extractedPages = new ArrayDeque<>();
+    private int maxPages;
+
+    /**
+     * Constructs a new, empty index.
+     *
+     * @param numberOfPages the number of pages of the document
+     */
+    public TextLayerIndex(int numberOfPages) {
+        pages = new AtomicReferenceArray<>(numberOfPages);
+        maxPages = numberOfPages;
+    }
+
+    /**
+     * Returns the number of pages of the document.
+     *
+     * @return the number of pages
+     */
+    public int getNumberOfPages() {
+        return pages.length();
+    }
+
+    /**
+     * Returns the text of the given page.
+     *
+     * @param pageNumber the page number
+     * @return the text or null if the page has not been indexed yet or has been dropped
+     */
+    public PageText getPage(int pageNumber) {
+        return pages.get(pageNumber);
+    }
+
+    /**
+     * Returns the maximum number of pages whose text is kept.
+     *
+     * @return the maximum number of pages
+     */
+    public synchronized int getMaxPages() {
+        return maxPages;
+    }
+
+    /**
+     * Sets the maximum number of pages whose text is kept. Once more pages have been extracted,
+     * the pages that have been extracted first get dropped. The trigram index is not affected,
+     * it keeps the pages that have been dropped. By default, all pages are kept.
+     *
+     * @param maxPages the maximum number of pages, must be at least 1
+     */
+    public synchronized void setMaxPages(int maxPages) {
+        if (maxPages < 1) {
+            throw new IllegalArgumentException("max pages must be at least 1 but was " + maxPages);
+        }
+
+        this.maxPages = maxPages;
+        if (maxPages >= pages.length()) {
+            extractedPages.clear();
+            return;
+        }
+
+        if (extractedPages.isEmpty()) {
+            // the order has not been tracked while all pages were kept
+            for (int pageNumber = 0; pageNumber < pages.length(); pageNumber++) {
+                if (pages.get(pageNumber) != null) {
+                    extractedPages.add(pageNumber);
+                }
+            }
+        }
+        dropPages();
+    }
+
+    /**
+     * Determines whether the pages get added to a trigram index.
+     *
+     * @return true if the trigram index is enabled
+     */
+    public boolean isTrigramIndexEnabled() {
+        return trigramIndex != null;
+    }
+
+    /**
+     * Enables or disables the trigram index. When enabled, the pages that have already been
+     * indexed get added right away, all other pages when they get indexed. Disabling the
+     * trigram index frees its memory.
+     *
+     * @param enabled true if the trigram index should be used
+     */
+    public synchronized void setTrigramIndexEnabled(boolean enabled) {
+        if (enabled == isTrigramIndexEnabled()) {
+            return;
+        }
+
+        if (!enabled) {
+            trigramIndex = null;
+            return;
+        }
+
+        // publish first, so that pages indexed from now on get added by the indexing thread
+        TrigramIndex index = new TrigramIndex(pages.length());
+        trigramIndex = index;
+        for (int pageNumber = 0; pageNumber < pages.length(); pageNumber++) {
+            PageText pageText = pages.get(pageNumber);
+            if (pageText != null) {
+                index.add(pageNumber, pageText.getText());
+            }
+        }
+    }
+
+    /**
+     * Determines whether the trigram index is enabled and contains all pages, so that
+     * {@link #getCandidatePages(String)} does not return any page just because it has not
+     * been indexed yet.
+     *
+     * @return true if the trigram index is complete
+     */
+    public boolean isTrigramIndexComplete() {
+        TrigramIndex index = trigramIndex;
+        return index != null && index.isComplete();
+    }
+
+    /**
+     * Returns the pages that might contain the given text, ignoring the case. Without a
+     * trigram index these are all pages.
+     *
+     * @param searchText the text
+     * @return the candidate pages
+     */
+    public BitSet getCandidatePages(String searchText) {
+        TrigramIndex index = trigramIndex;
+        if (index != null) {
+            return index.getCandidatePages(searchText);
+        }
+
+        BitSet candidates = new BitSet(pages.length());
+        candidates.set(0, pages.length());
+        return candidates;
+    }
+
+    /**
+     * Determines whether all pages of the given range are indexed.
+     *
+     * @param fromPage the first page (inclusive)
+     * @param toPage   the last page (exclusive)
+     * @return true if all pages are indexed
+     */
+    public boolean isIndexed(int fromPage, int toPage) {
+        return nextUnindexedPage(fromPage, toPage) == toPage;
+    }
+
+    /**
+     * Extracts the text of those pages of the given range that are not indexed yet.
+     * Consecutive pages get extracted in a single pass.
+     *
+     * @param document the document, must not be used by another thread at the same time
+     * @param fromPage the first page (inclusive)
+     * @param toPage   the last page (exclusive)
+     * @return the text of the first page, even if it has already been dropped again
+     * @throws IOException if the content of a page can not be read
+     */
+    public PageText index(PDDocument document, int fromPage, int toPage) throws IOException {
+        PageText firstPage = pages.get(fromPage);
+        int start = firstPage != null ? nextUnindexedPage(fromPage + 1, toPage) : fromPage;
+        while (start < toPage) {
+            int end = start + 1;
+            while (end < toPage && pages.get(end) == null) {
+                end++;
+            }
+
+            TextLayerStripper stripper = new TextLayerStripper();
+            stripper.setStartPage(start + 1);
+            stripper.setEndPage(end);
+            stripper.writeText(document, Writer.nullWriter());
+
+            // pages without content do not get passed to the stripper
+            for (int pageNumber = start; pageNumber < end; pageNumber++) {
+                if (!stripper.extractedPages.get(pageNumber - start) && pages.compareAndSet(pageNumber, null, PageText.EMPTY)) {
+                    addPage(pageNumber, PageText.EMPTY);
+                }
+            }
+
+            if (start == fromPage) {
+                firstPage = stripper.firstPage != null ? stripper.firstPage : PageText.EMPTY;
+            }
+
+            start = nextUnindexedPage(end, toPage);
+        }
+        return firstPage;
+    }
+
+    /*
+     * Called after the text of a page has been stored.
+     */
+    private void addPage(int pageNumber, PageText pageText) {
+        addToTrigramIndex(pageNumber, pageText);
+
+        synchronized (this) {
+            if (maxPages < pages.length()) {
+                extractedPages.add(pageNumber);
+                dropPages();
+            }
+        }
+    }
+
+    // guarded by this
+    private void dropPages() {
+        while (extractedPages.size() > maxPages) {
+            pages.set(extractedPages.poll(), null);
+        }
+    }
+
+    private void addToTrigramIndex(int pageNumber, PageText pageText) {
+        TrigramIndex index = trigramIndex;
+        if (index != null) {
+            index.add(pageNumber, pageText.getText());
+        }
+    }
+
+    private int nextUnindexedPage(int fromPage, int toPage) {
+        int pageNumber = fromPage;
+        while (pageNumber < toPage && pages.get(pageNumber) != null) {
+            pageNumber++;
+        }
+        return pageNumber;
+    }
+
+    /*
+     * Collects the text of each page in position order. The stripper groups the text positions
+     * into lines and passes each line to writeString(), either as a whole or, if it had to insert
+     * word separators, one word at a time with writeWordSeparator() in between. The end of each
+     * line gets signalled by writeLineSeparator(). The text might contain word separators that
+     * have no text position of their own, and might have been normalized, so that a text position
+     * can stand for several characters.
+     */
+    private final class TextLayerStripper extends PDFTextStripper {
+
+        // the pages passed to the stripper, relative to the start page
+        private final BitSet extractedPages = new BitSet();
+        private PageText firstPage;
+        private PageTextBuilder builder;
+
+        TextLayerStripper() {
+            setSortByPosition(true);
+        }
+
+        @Override
+        protected void startPage(PDPage page) {
+            builder = new PageTextBuilder();
+        }
+
+        @Override
+        protected void endPage(PDPage page) {
+            // the current page number is one based
+            int pageNumber = getCurrentPageNo() - 1;
+            PageText pageText = builder.build();
+            if (getCurrentPageNo() == getStartPage()) {
+                firstPage = pageText;
+            }
+            extractedPages.set(getCurrentPageNo() - getStartPage());
+            pages.set(pageNumber, pageText);
+            addPage(pageNumber, pageText);
+            builder = null;
+        }
+
+        @Override
+        protected void writeString(String text, List<TextPosition> textPositions) {
+            builder.addText(text, textPositions);
+        }
+
+        @Override
+        protected void writeWordSeparator() {
+            builder.addWordSeparator(getWordSeparator());
+        }
+
+        @Override
+        protected void writeLineSeparator() {
+            builder.endLine();
+        }
+
+        @Override
+        protected void endArticle() {
+            // the last line of an article is not followed by a line separator
+            builder.endLine();
+        }
+    }
+
+    private static final class PageTextBuilder {
+
+        private final StringBuilder text = new StringBuilder();
+        private float[] x = new float[256];
+        private float[] width = new float[256];
+
+        private int[] lineStarts = new int[16];
+        private float[] lineTops = new float[16];
+        private float[] lineBottoms = new float[16];
+        private float[] textTops = new float[16];
+        private float[] textBottoms = new float[16];
+        private int lineCount;
+
+        // the bounds of the current line, which is open as long as lineStart is not -1
+        private int lineStart = -1;
+        private float lineTop;
+        private float lineBottom;
+        private float textTop;
+        private float textBottom;
+
+        void addText(String lineText, List<TextPosition> textPositions) {
+            if (lineText.isEmpty() || textPositions.isEmpty()) {
+                return;
+            }
+
+            if (lineStart == -1) {
+                startLine();
+            }
+
+            int index = 0;
+            TextPosition position = null;
+            for (TextPosition textPosition : textPositions) {
+                // characters without a text position of their own are word separators
+                while (index < lineText.length() && Character.isWhitespace(lineText.charAt(index)) && !textPosition.getUnicode().isBlank()) {
+                    text.append(lineText.charAt(index++));
+                    add(Float.NaN, Float.NaN);
+                }
+
+                String unicode = textPosition.getUnicode();
+                int length = lineText.startsWith(unicode, index) ? unicode.length() : 1;
+                for (int i = 0; i < length && index < lineText.length(); i++) {
+                    text.append(lineText.charAt(index++));
+                    add(textPosition.getXDirAdj(), textPosition.getWidthDirAdj());
+                }
+
+                float y = textPosition.getYDirAdj();
+                float fontSize = textPosition.getFontSizeInPt();
+                PDFontDescriptor fontDescriptor = textPosition.getFont().getFontDescriptor();
+                float ascent = fontDescriptor != null ? Math.abs(fontDescriptor.getAscent() / 1000f * fontSize) : textPosition.getHeightDir();
+                float descent = fontDescriptor != null ? Math.abs(fontDescriptor.getDescent() / 1000f * fontSize) : 0;
+
+                lineTop = Math.min(lineTop, y - ascent);
+                lineBottom = Math.max(lineBottom, y + descent);
+                textTop = Math.min(textTop, y - textPosition.getHeightDir());
+                textBottom = Math.max(textBottom, y);
+
+                position = textPosition;
+            }
+
+            // normalization might have produced more characters than there are text positions
+            while (index < lineText.length()) {
+                text.append(lineText.charAt(index++));
+                add(position.getXDirAdj(), position.getWidthDirAdj());
+            }
+        }
+
+        void addWordSeparator(String separator) {
+            if (lineStart == -1) {
+                return;
+            }
+
+            for (int index = 0; index < separator.length(); index++) {
+                text.append(separator.charAt(index));
+                add(Float.NaN, Float.NaN);
+            }
+        }
+
+        private void startLine() {
+            if (lineCount > 0) {
+                // keeps search hits from spanning two lines
+                text.append('\n');
+                add(Float.NaN, Float.NaN);
+            }
+
+            lineStart = text.length();
+            lineTop = Float.MAX_VALUE;
+            lineBottom = 0;
+            textTop = Float.MAX_VALUE;
+            textBottom = 0;
+        }
+
+        void endLine() {
+            if (lineStart == -1) {
+                return;
+            }
+
+            if (lineCount == lineStarts.length) {
+                int capacity = lineCount * 2;
+                lineStarts = Arrays.copyOf(lineStarts, capacity);
+                lineTops = Arrays.copyOf(lineTops, capacity);
+                lineBottoms = Arrays.copyOf(lineBottoms, capacity);
+                textTops = Arrays.copyOf(textTops, capacity);
+                textBottoms = Arrays.copyOf(textBottoms, capacity);
+            }
+
+            lineStarts[lineCount] = lineStart;
+            lineTops[lineCount] = lineTop;
+            lineBottoms[lineCount] = lineBottom;
+            textTops[lineCount] = textTop;
+            textBottoms[lineCount] = textBottom;
+            lineCount++;
+            lineStart = -1;
+        }
+
+        private void add(float glyphX, float glyphWidth) {
+            int index = text.length() - 1;
+            if (index == x.length) {
+                x = Arrays.copyOf(x, index * 2);
+                width = Arrays.copyOf(width, index * 2);
+            }
+            x[index] = glyphX;
+            width[index] = glyphWidth;
+        }
+
+        PageText build() {
+            // the last line of a page is not followed by a line separator
+            endLine();
+
+            int length = text.length();
+            return new PageText(text.toString(), Arrays.copyOf(x, length), Arrays.copyOf(width, length),
+                    Arrays.copyOf(lineStarts, lineCount), Arrays.copyOf(lineTops, lineCount), Arrays.copyOf(lineBottoms, lineCount),
+                    Arrays.copyOf(textTops, lineCount), Arrays.copyOf(textBottoms, lineCount));
+        }
+    }
+
+    /**
+     * The text of a single page. Each line of the page is one line of the text. For every
+     * character the horizontal bounds of its glyph are stored, the vertical bounds are stored
+     * for each line. Characters without a glyph, e.g. word separators, have no bounds.
+     */
+    public static final class PageText {
+
+        private static final PageText EMPTY = new PageText("", new float[0], new float[0], new int[0], new float[0], new float[0], new float[0], new float[0]);
+
+        private final String text;
+        private final float[] x;
+        private final float[] width;
+        private final int[] lineStarts;
+        private final float[] lineTops;
+        private final float[] lineBottoms;
+        private final float[] textTops;
+        private final float[] textBottoms;
+
+        private PageText(String text, float[] x, float[] width, int[] lineStarts, float[] lineTops, float[] lineBottoms, float[] textTops, float[] textBottoms) {
+            this.text = text;
+            this.x = x;
+            this.width = width;
+            this.lineStarts = lineStarts;
+            this.lineTops = lineTops;
+            this.lineBottoms = lineBottoms;
+            this.textTops = textTops;
+            this.textBottoms = textBottoms;
+        }
+
+        /**
+         * Returns the text of the page, the lines are separated by a line feed.
+         *
+         * @return the text
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Returns the number of lines.
+         *
+         * @return the number of lines
+         */
+        public int getLineCount() {
+            return lineStarts.length;
+        }
+
+        /**
+         * Returns the index of the first character of the given line.
+         *
+         * @param line the line
+         * @return the index of the first character
+         */
+        public int getLineStart(int line) {
+            return lineStarts[line];
+        }
+
+        /**
+         * Returns the index after the last character of the given line.
+         *
+         * @param line the line
+         * @return the index after the last character
+         */
+        public int getLineEnd(int line) {
+            // the next line starts after the line feed
+            return line + 1 < lineStarts.length ? lineStarts[line + 1] - 1 : text.length();
+        }
+
+        /**
+         * Returns the text of the given line.
+         *
+         * @param line the line
+         * @return the text of the line
+         */
+        public String getLine(int line) {
+            return text.substring(getLineStart(line), getLineEnd(line));
+        }
+
+        /**
+         * Returns the line that contains the character at the given index.
+         *
+         * @param index the index of the character
+         * @return the line
+         */
+        public int getLineOf(int index) {
+            int line = Arrays.binarySearch(lineStarts, index);
+            return line >= 0 ? line : -line - 2;
+        }
+
+        /**
+         * Searches the lines of the page, ignoring the case. Every line is reported once, with
+         * the index of its first hit.
+         *
+         * @param searchText the text to search for
+         * @return the indices of the hits
+         */
+        public int[] findLines(String searchText) {
+            if (searchText.isEmpty()) {
+                return new int[0];
+            }
+
+            int[] hits = new int[8];
+            int count = 0;
+
+            int index = StringUtils.indexOfIgnoreCase(text, searchText, 0);
+            while (index >= 0) {
+                int line = getLineOf(index);
+                if (index + searchText.length() <= getLineEnd(line)) {
+                    if (count == hits.length) {
+                        hits = Arrays.copyOf(hits, count * 2);
+                    }
+                    hits[count++] = index;
+                    index = line + 1 < lineStarts.length ? StringUtils.indexOfIgnoreCase(text, searchText, lineStarts[line + 1]) : -1;
+                } else {
+                    index = StringUtils.indexOfIgnoreCase(text, searchText, index + 1);
+                }
+            }
+
+            return Arrays.copyOf(hits, count);
+        }
+
+        /**
+         * Returns the bounds of the glyphs of the given characters, which have to be on the same
+         * line, plus a padding of two points on each side.
+         *
+         * @param start the index of the first character (inclusive)
+         * @param end   the index of the last character (exclusive)
+         * @return the bounds in PDF coordinates
+         */
+        public Rectangle2D getMarker(int start, int end) {
+            int line = getLineOf(start);
+
+            float x1 = Float.MAX_VALUE;
+            float x2 = 0;
+            for (int index = start; index < end; index++) {
+                if (hasGlyph(index)) {
+                    x1 = Math.min(x1, x[index]);
+                    x2 = Math.max(x2, x[index] + width[index]);
+                }
+            }
+
+            if (x1 > x2) {
+                // only word separators, mark the whole line instead
+                int lineStart = getLineStart(line);
+                int lineEnd = getLineEnd(line);
+                if (start != lineStart || end != lineEnd) {
+                    return getMarker(lineStart, lineEnd);
+                }
+                x1 = x2 = 0;
+            }
+
+            float y1 = textTops[line];
+            float y2 = textBottoms[line];
+
+            x1 -= 2;
+            x2 += 2;
+            y1 -= 2;
+            y2 += 2;
+
+            return new Rectangle2D(x1, y1, x2 - x1, y2 - y1);
+        }
+
+        /**
+         * Returns the selection between the given points.
+         *
+         * @param pageNumber the page number of this page
+         * @param start      the point where the selection starts
+         * @param end        the point where the selection ends
+         * @param mode       the selection mode
+         * @return the selection or null if no text lies between the points
+         */
+        public Selection getSelection(int pageNumber, Point2D start, Point2D end, Selection.Mode mode) {
+            if (start.getY() > end.getY()) {
+                Point2D tmp = end;
+                end = start;
+                start = tmp;
+            }
+
+            List<Rectangle2D> selectionRectangles = new ArrayList<>();
+            StringBuilder selectionText = new StringBuilder();
+
+            int startLine = getFirstLineAt(start.getY());
+            int endLine = getLastLineAt(end.getY());
+            if (startLine != -1 && endLine != -1 && startLine <= endLine) {
+                if (startLine == endLine) {
+                    collectSelection(startLine, start.getX(), end.getX(), mode, selectionRectangles, selectionText);
+                } else {
+                    collectSelection(startLine, start.getX(), Double.MAX_VALUE, mode, selectionRectangles, selectionText);
+                    for (int line = startLine + 1; line < endLine; line++) {
+                        selectionText.append("\n");
+                        collectSelection(line, Double.MIN_VALUE, Double.MAX_VALUE, mode, selectionRectangles, selectionText);
+                    }
+                    selectionText.append("\n");
+                    collectSelection(endLine, Double.MIN_VALUE, end.getX(), mode, selectionRectangles, selectionText);
+                }
+            }
+
+            return selectionText.isEmpty() ? null : new Selection(pageNumber, selectionRectangles, selectionText.toString());
+        }
+
+        private int getFirstLineAt(double y) {
+            for (int line = 0; line < lineStarts.length; line++) {
+                if (lineBottoms[line] >= y) {
+                    return line;
+                }
+            }
+            return -1;
+        }
+
+        private int getLastLineAt(double y) {
+            for (int line = lineStarts.length - 1; line >= 0; line--) {
+                if (lineTops[line] <= y) {
+                    return line;
+                }
+            }
+            return -1;
+        }
+
+        private void collectSelection(int line, double startX, double endX, Selection.Mode mode, List<Rectangle2D> selectionRectangles, StringBuilder selectionText) {
+            if (startX > endX) {
+                double tmp = endX;
+                endX = startX;
+                startX = tmp;
+            }
+
+            int startIndex = getStartIndex(line, startX, mode);
+            int endIndex = getEndIndex(line, endX, mode);
+            if (startIndex != -1 && endIndex != -1 && endIndex > startIndex) {
+                selectionText.append(text, startIndex, endIndex + 1);
+                selectionRectangles.add(new Rectangle2D(x[startIndex], lineTops[line], x[endIndex] + width[endIndex] - x[startIndex], lineBottoms[line] - lineTops[line]));
+            }
+        }
+
+        private int getStartIndex(int line, double startX, Selection.Mode mode) {
+            int startIndex = -1;
+            int firstIndex = -1;
+            int lastWordStartIndex = -1;
+            boolean lastWasBlank = true;
+
+            int lineEnd = getLineEnd(line);
+            for (int index = getLineStart(line); index < lineEnd && startIndex == -1; index++) {
+                if (!hasGlyph(index)) {
+                    lastWasBlank = true;
+                    continue;
+                }
+
+                if (firstIndex == -1) {
+                    firstIndex = index;
+                }
+                if (startX <= x[index] + width[index] / 2) {
+                    startIndex = index;
+                }
+                if (lastWasBlank) {
+                    lastWordStartIndex = index;
+                }
+                lastWasBlank = Character.isWhitespace(text.charAt(index));
+            }
+
+            return switch (mode) {
+                case CHARACTER -> startIndex;
+                case WORD -> lastWordStartIndex;
+                case LINE -> firstIndex;
+            };
+        }
+
+        private int getEndIndex(int line, double endX, Selection.Mode mode) {
+            int endIndex = -1;
+            int lastIndex = -1;
+            int lastWordEndIndex = -1;
+            boolean lastWasBlank = true;
+
+            int lineStart = getLineStart(line);
+            for (int index = getLineEnd(line) - 1; index >= lineStart && endIndex == -1; index--) {
+                if (!hasGlyph(index)) {
+                    lastWasBlank = true;
+                    continue;
+                }
+
+                if (lastIndex == -1) {
+                    lastIndex = index;
+                }
+                if (x[index] + width[index] / 2 <= endX) {
+                    endIndex = index;
+                }
+                if (lastWasBlank) {
+                    lastWordEndIndex = index;
+                }
+                lastWasBlank = Character.isWhitespace(text.charAt(index));
+            }
+
+            return switch (mode) {
+                case CHARACTER -> endIndex;
+                case WORD -> lastWordEndIndex;
+                case LINE -> lastIndex;
+            };
+        }
+
+        private boolean hasGlyph(int index) {
+            return !Float.isNaN(width[index]);
+        }
+
+        @Override
+        public String toString() {
+            return "PageText [lines: " + lineStarts.length + ", characters: " + text.length() + "]";
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.dlsc.pdfviewfx.impl;
+
+import com.dlsc.pdfviewfx.PDFView.RenderQuality;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * A thumbnail cache on disk that survives the application. Thumbnails get stored as PNG files
+ * named after the content hash of the document, the page number, and the way they have been
+ * created: rendered thumbnails by their scale and render quality, thumbnails embedded in the
+ * document by a fixed marker, as their size does not depend on the view. The store is
+ * bounded by the total size of its files. When a new thumbnail exceeds the limit, the least
+ * recently used thumbnails get deleted, where "used" means written or loaded.
+ * <p>
+ * The store is a best effort cache, so failing to read or write a thumbnail is never an error,
+ * the thumbnail will simply be rendered again.
+ */
+public final class ThumbnailStore {
+
+    private static final String SUFFIX = ".png";
+
+    private static final String EMBEDDED = "embedded";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    private long sizeInBytes = -1;
+
+    /**
+     * Constructs a new store.
+     *
+     * @param directory the directory where the thumbnails will be stored, will be created if needed
+     * @param maxBytes  the maximum number of bytes used by all files of the store
+     */
+    public ThumbnailStore(File directory, long maxBytes) {
+        this.directory = Objects.requireNonNull(directory, "directory can not be null").toPath();
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the directory where the thumbnails are stored.
+     *
+     * @return the directory
+     */
+    public File getDirectory() {
+        return directory.toFile();
+    }
+
+    /**
+     * Loads the rendered thumbnail of the given page.
+     *
+     * @param contentHash the content hash of the document
+     * @param page        the page number
+     * @param scale       the scale at which the thumbnail was rendered
+     * @param quality     the quality at which the thumbnail was rendered
+     * @return the thumbnail or null if the store does not contain it
+     */
+    public BufferedImage load(String contentHash, int page, float scale, RenderQuality quality) {
+        return load(getFile(contentHash, page, Float.floatToIntBits(scale) + "_" + quality));
+    }
+
+    /**
+     * Loads the thumbnail of the given page that has been embedded in the document.
+     *
+     * @param contentHash the content hash of the document
+     * @param page        the page number
+     * @return the thumbnail or null if the store does not contain it
+     */
+    public BufferedImage loadEmbedded(String contentHash, int page) {
+        return load(getFile(contentHash, page, EMBEDDED));
+    }
+
+    private BufferedImage load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try {
+            BufferedImage image = ImageIO.read(file.toFile());
+            if (image != null) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return image;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the rendered thumbnail of the given page.
+     *
+     * @param contentHash the content hash of the document
+     * @param page        the page number
+     * @param scale       the scale at which the thumbnail was rendered
+     * @param quality     the quality at which the thumbnail was rendered
+     * @param image       the thumbnail
+     */
+    public void store(String contentHash, int page, float scale, RenderQuality quality, BufferedImage image) {
+        store(getFile(contentHash, page, Float.floatToIntBits(scale) + "_" + quality), image);
+    }
+
+    /**
+     * Stores the thumbnail of the given page that has been embedded in the document.
+     *
+     * @param contentHash the content hash of the document
+     * @param page        the page number
+     * @param image       the thumbnail
+     */
+    public void storeEmbedded(String contentHash, int page, BufferedImage image) {
+        store(getFile(contentHash, page, EMBEDDED), image);
+    }
+
+    private void store(Path file, BufferedImage image) {
+        try {
+            Files.createDirectories(directory);
+
+            // write to a temporary file first so that readers never see a partially written thumbnail
+            Path tempFile = Files.createTempFile(directory, "thumbnail", ".tmp");
+            try {
+                ImageIO.write(toStorableImage(image), "png", tempFile.toFile());
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+
+            added(Files.size(file));
+        } catch (IOException | UncheckedIOException e) {
+            // the thumbnail will be rendered again next time
+        }
+    }
+
+    private synchronized void added(long bytes) throws IOException {
+        if (sizeInBytes < 0) {
+            // the initial scan already includes the new file
+            sizeInBytes = 0;
+            for (Path file : listFiles()) {
+                sizeInBytes += Files.size(file);
+            }
+        } else {
+            sizeInBytes += bytes;
+        }
+
+        if (sizeInBytes <= maxBytes) {
+            return;
+        }
+
+        List<Path> files = listFiles();
+        files.sort(Comparator.comparing(ThumbnailStore::getLastModifiedTime));
+        for (Path file : files) {
+            if (sizeInBytes <= maxBytes) {
+                break;
+            }
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                sizeInBytes -= size;
+            }
+        }
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return new ArrayList<>(stream.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).toList());
+        }
+    }
+
+    private Path getFile(String contentHash, int page, String source) {
+        return directory.resolve(contentHash + "_" + page + "_" + source + SUFFIX);
+    }
+
+    private static FileTime getLastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BufferedImage toStorableImage(BufferedImage image) {
+        // PNG does not support premultiplied alpha
+        if (!image.isAlphaPremultiplied()) {
+            return image;
+        }
+
+        BufferedImage storableImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = storableImage.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return storableImage;
+    }
+}
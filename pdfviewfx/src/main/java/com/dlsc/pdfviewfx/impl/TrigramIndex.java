@@ -0,0 +1,157 @@
+package com.dlsc.pdfviewfx.impl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An inverted index that maps each sequence of three characters (trigram) to the pages that
+ * contain it. The pages that might contain a search text are the pages that contain all of its
+ * trigrams, so only these pages need to be searched. The index ignores the case in the same
+ * way as {@link String#regionMatches(boolean, int, String, int, int)}.
+ * <p>
+ * Pages can be added in any order and by several threads, the index can be queried while
+ * pages are being added.
+ */
+final class TrigramIndex {
+
+    private final int numberOfPages;
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final BitSet indexedPages = new BitSet();
+
+    TrigramIndex(int numberOfPages) {
+        this.numberOfPages = numberOfPages;
+    }
+
+    /**
+     * Adds the trigrams of the given page. Adding a page more than once has no effect.
+     *
+     * @param pageNumber the page number
+     * @param text       the text of the page
+     */
+    synchronized void add(int pageNumber, String text) {
+        if (indexedPages.get(pageNumber)) {
+            return;
+        }
+
+        for (int index = 0; index + 3 <= text.length(); index++) {
+            postings.computeIfAbsent(trigram(text, index), key -> new Postings()).add(pageNumber);
+        }
+
+        // only now, so that queries never see a partially added page
+        indexedPages.set(pageNumber);
+    }
+
+    /**
+     * Determines whether all pages have been added.
+     *
+     * @return true if all pages have been added
+     */
+    synchronized boolean isComplete() {
+        return indexedPages.cardinality() == numberOfPages;
+    }
+
+    /**
+     * Returns the pages that might contain the given text. These are the pages that contain
+     * all trigrams of the text plus the pages that have not been added yet. Texts shorter than
+     * three characters could be anywhere.
+     *
+     * @param searchText the text
+     * @return the candidate pages
+     */
+    synchronized BitSet getCandidatePages(String searchText) {
+        BitSet candidates = new BitSet(numberOfPages);
+        if (searchText.length() < 3) {
+            candidates.set(0, numberOfPages);
+            return candidates;
+        }
+
+        // start with the rarest trigram, so the intersection is small from the beginning
+        Postings[] lists = new Postings[searchText.length() - 2];
+        for (int index = 0; index < lists.length; index++) {
+            lists[index] = postings.get(trigram(searchText, index));
+            if (lists[index] == null) {
+                lists = new Postings[0];
+                break;
+            }
+        }
+
+        if (lists.length > 0) {
+            Arrays.sort(lists, (list1, list2) -> Integer.compare(list1.size, list2.size));
+
+            int[] pages = Arrays.copyOf(lists[0].pages, lists[0].size);
+            int size = pages.length;
+            for (int list = 1; list < lists.length && size > 0; list++) {
+                size = lists[list].retainAll(pages, size);
+            }
+
+            for (int index = 0; index < size; index++) {
+                candidates.set(pages[index]);
+            }
+        }
+
+        for (int page = indexedPages.nextClearBit(0); page < numberOfPages; page = indexedPages.nextClearBit(page + 1)) {
+            candidates.set(page);
+        }
+
+        return candidates;
+    }
+
+    private static long trigram(String text, int index) {
+        return (long) fold(text.charAt(index)) << 32 | (long) fold(text.charAt(index + 1)) << 16 | fold(text.charAt(index + 2));
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /*
+     * The sorted numbers of the pages that contain a trigram.
+     */
+    private static final class Postings {
+
+        private int[] pages = new int[4];
+        private int size;
+
+        void add(int pageNumber) {
+            // pages usually get added in order and contain a trigram more than once
+            if (size > 0 && pages[size - 1] == pageNumber) {
+                return;
+            }
+
+            int index = size == 0 || pages[size - 1] < pageNumber ? size : Arrays.binarySearch(pages, 0, size, pageNumber);
+            if (index < 0) {
+                index = -index - 1;
+            } else if (index < size) {
+                return;
+            }
+
+            if (size == pages.length) {
+                pages = Arrays.copyOf(pages, size * 2);
+            }
+            System.arraycopy(pages, index, pages, index + 1, size - index);
+            pages[index] = pageNumber;
+            size++;
+        }
+
+        /*
+         * Removes the pages from the given sorted array that are not contained in this list and
+         * returns the new size of the array.
+         */
+        int retainAll(int[] otherPages, int otherSize) {
+            int newSize = 0;
+            int index = 0;
+            for (int otherIndex = 0; otherIndex < otherSize; otherIndex++) {
+                int page = otherPages[otherIndex];
+                while (index < size && pages[index] < page) {
+                    index++;
+                }
+                if (index < size && pages[index] == page) {
+                    otherPages[newSize++] = page;
+                }
+            }
+            return newSize;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.dlsc.pdfviewfx.skins;
+
+import javafx.scene.image.Image;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A thread-safe cache for rendered images that is bounded by the amount of memory used by
+ * the pixels of the cached images. When adding an image exceeds the budget, the least recently
+ * used images get evicted. The cache keeps track of hits, misses, and evictions, which can be
+ * used to tune the budget.
+ *
+ * @param <K> the type of the keys
+ */
+public final class ImageCache<K> {
+
+    private final LinkedHashMap<K, Image> images = new LinkedHashMap<>(16, .75f, true);
+
+    private long maxBytes;
+    private long sizeInBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param maxBytes the maximum number of bytes used by the pixels of all cached images
+     */
+    public ImageCache(long maxBytes) {
+        setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Returns the cached image for the given key.
+     *
+     * @param key the key
+     * @return the cached image or null if the cache does not contain an image for the key
+     */
+    public synchronized Image get(K key) {
+        if (key == null) {
+            return null;
+        }
+
+        Image image = images.get(key);
+        if (image != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return image;
+    }
+
+    /**
+     * Checks whether the cache contains an image for the given key. Unlike {@link #get(Object)}
+     * this neither counts as a hit or miss nor marks the image as recently used.
+     *
+     * @param key the key
+     * @return true if the cache contains an image for the key
+     */
+    public synchronized boolean contains(K key) {
+        return key != null && images.containsKey(key);
+    }
+
+    /**
+     * Returns a snapshot of the keys of all cached images. Like {@link #contains(Object)}
+     * this does not affect the statistics or the order of the images.
+     *
+     * @return the keys
+     */
+    public synchronized List<K> keys() {
+        return new ArrayList<>(images.keySet());
+    }
+
+    /**
+     * Adds the given image to the cache. Images that are larger than the entire budget
+     * will not be cached.
+     *
+     * @param key   the key
+     * @param image the image
+     */
+    public synchronized void put(K key, Image image) {
+        if (key == null || image == null) {
+            return;
+        }
+
+        Image oldImage = images.remove(key);
+        if (oldImage != null) {
+            sizeInBytes -= getSizeInBytes(oldImage);
+        }
+
+        long imageSize = getSizeInBytes(image);
+        if (imageSize > maxBytes) {
+            return;
+        }
+
+        images.put(key, image);
+        sizeInBytes += imageSize;
+        evict();
+    }
+
+    /**
+     * Removes all images from the cache. The statistics will not be reset.
+     */
+    public synchronized void clear() {
+        images.clear();
+        sizeInBytes = 0;
+    }
+
+    /**
+     * Returns the maximum number of bytes used by the pixels of all cached images.
+     *
+     * @return the budget in bytes
+     */
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Sets the maximum number of bytes used by the pixels of all cached images. Lowering
+     * the value will immediately evict images until the cache fits into the new budget.
+     *
+     * @param maxBytes the budget in bytes
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("max bytes can not be negative but was " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    /**
+     * Returns the number of bytes currently used by the pixels of the cached images.
+     *
+     * @return the size of the cache in bytes
+     */
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Returns the number of images currently stored in the cache.
+     *
+     * @return the number of images
+     */
+    public synchronized int size() {
+        return images.size();
+    }
+
+    /**
+     * Returns the number of lookups that returned an image.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that did not return an image.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of images that had to be removed to stay within the budget.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<K, Image>> iterator = images.entrySet().iterator();
+        while (sizeInBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<K, Image> eldest = iterator.next();
+            iterator.remove();
+            sizeInBytes -= getSizeInBytes(eldest.getValue());
+            evictionCount++;
+        }
+    }
+
+    private static long getSizeInBytes(Image image) {
+        // all images used by the view store four bytes per pixel
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ImageCache [images: " + images.size() + ", bytes: " + sizeInBytes + " / " + maxBytes + ", hits: " + hitCount + ", misses: " + missCount + ", evictions: " + evictionCount + "]";
+    }
+}
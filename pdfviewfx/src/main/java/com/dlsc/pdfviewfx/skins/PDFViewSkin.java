@@ -5,22 +5,28 @@ import com.dlsc.pdfviewfx.PDFView.Document;
 import com.dlsc.pdfviewfx.PDFView.SearchResult;
 import com.dlsc.pdfviewfx.PDFView.SearchableDocument;
 import com.dlsc.pdfviewfx.Selection;
+import com.dlsc.pdfviewfx.impl.ImageConverter;
+import com.dlsc.pdfviewfx.impl.ThumbnailStore;
 
 import javafx.animation.FadeTransition;
 import javafx.animation.ParallelTransition;
+import javafx.animation.PauseTransition;
 import javafx.animation.ScaleTransition;
 import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
+import javafx.beans.WeakInvalidationListener;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.BooleanBinding;
+import javafx.beans.binding.FloatBinding;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.concurrent.Service;
 import javafx.concurrent.Task;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.geometry.Bounds;
+import javafx.geometry.Dimension2D;
 import javafx.geometry.Orientation;
 import javafx.geometry.Point2D;
 import javafx.geometry.Point3D;
@@ -40,28 +46,30 @@ import javafx.scene.input.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
+import javafx.stage.Screen;
+import javafx.stage.Window;
 import javafx.util.Duration;
 import org.apache.commons.lang3.StringUtils;
 import org.controlsfx.control.textfield.CustomTextField;
 import org.kordamp.ikonli.javafx.FontIcon;
 import org.kordamp.ikonli.materialdesign.MaterialDesign;
 
-import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.util.List;
 import java.util.*;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class PDFViewSkin extends SkinBase<PDFView> {
 
-    // Access to PDF document must be single threaded (see Apache PdfBox website FAQs)
-    private final Executor EXECUTOR = Executors.newSingleThreadExecutor(r -> {
-        Thread thread = new Thread(r, PDFView.class.getSimpleName() + " Thread");
-        thread.setDaemon(true);
-        return thread;
-    });
+    /*
+     * Access to a single PDF document instance must be single threaded (see Apache PdfBox website FAQs).
+     * The number of worker threads therefore gets limited by the number of concurrent renders that the
+     * current document supports, see updateRenderWorkerCount(). The main page always gets rendered
+     * before the thumbnails and the prefetched pages.
+     */
+    private final RenderScheduler scheduler = new RenderScheduler(PDFView.class.getSimpleName() + " Thread");
 
     private final ObservableList<Integer> pdfFilePages = FXCollections.observableArrayList();
 
@@ -69,26 +77,80 @@ public class PDFViewSkin extends SkinBase<PDFView> {
 
     private final ListView<PageSearchResult> searchResultListView = new ListView<>();
 
-    private final Map<Integer, Image> imageCache = new HashMap<>();
+    private final ImageCache<Integer> imageCache = new ImageCache<>(0);
+
+    private final ImageCache<PageKey> pageCache = new ImageCache<>(0);
+
+    // shared by the tile layers of the main area and of the continuous page list view
+    private final ImageCache<TileKey> tileCache = new ImageCache<>(TileLayer.TILE_CACHE_LIMIT);
+
+    private volatile ThumbnailStore thumbnailStore;
+
+    /*
+     * Incremented on the FX thread whenever the image caches get cleared. Render tasks capture it
+     * when they get created, so images rendered for a replaced document or with outdated settings
+     * do not end up in the caches, without the tasks having to read the properties of the view.
+     */
+    private volatile int cacheGeneration;
+
+    /*
+     * The zoom factor used for rendering. It follows the zoom factor of the view once the
+     * zoom factor has not changed for the duration of the zoom render delay.
+     */
+    private final DoubleProperty renderZoomFactor = new SimpleDoubleProperty(1);
+
+    private final PauseTransition zoomRenderDelay = new PauseTransition();
     
     private SelectionService selectionService = new SelectionService();
 
     public PDFViewSkin(PDFView view) {
         super(view);
 
-        view.getSearchResults().addListener((Observable it) -> {
-            ObservableList<PDFView.SearchResult> searchResults = view.getSearchResults();
-            Map<Integer, PageSearchResult> itemMap = new HashMap<>();
+        imageCache.setMaxBytes(view.getThumbnailCacheLimit());
+        view.thumbnailCacheLimitProperty().addListener(it -> imageCache.setMaxBytes(view.getThumbnailCacheLimit()));
 
-            searchResults.forEach(result -> {
-                PageSearchResult pageSearchResult = itemMap.computeIfAbsent(result.getPageNumber(),
-                        key -> new PageSearchResult(result.getPageNumber(), result.getSearchText()));
-                pageSearchResult.getItems().add(result);
-            });
+        // thumbnails get rendered at their display size and quality, so they have to be rendered again when these change
+        InvalidationListener thumbnailSettingsListener = it -> {
+            cacheGeneration++;
+            imageCache.clear();
+            thumbnailListView.refresh();
+            searchResultListView.refresh();
+        };
+        view.thumbnailSizeProperty().addListener(thumbnailSettingsListener);
+        view.thumbnailRenderQualityProperty().addListener(thumbnailSettingsListener);
+
+        pageCache.setMaxBytes(view.getPageCacheLimit());
+        view.pageCacheLimitProperty().addListener(it -> pageCache.setMaxBytes(view.getPageCacheLimit()));
+
+        InvalidationListener updateThumbnailStoreListener = it -> updateThumbnailStore();
+        view.thumbnailStoreDirectoryProperty().addListener(updateThumbnailStoreListener);
+        view.thumbnailStoreLimitProperty().addListener(updateThumbnailStoreListener);
+        updateThumbnailStore();
+
+        renderZoomFactor.set(view.getZoomFactor());
+        zoomRenderDelay.setOnFinished(evt -> renderZoomFactor.set(view.getZoomFactor()));
+        view.zoomFactorProperty().addListener(it -> updateRenderZoomFactor());
+
+        view.renderWorkerCountProperty().addListener(it -> updateRenderWorkerCount());
+        view.documentProperty().addListener(it -> updateRenderWorkerCount());
+        updateRenderWorkerCount();
+
+        view.getSearchResults().addListener((ListChangeListener<SearchResult>) change -> {
+            // the results of the skin's own searches come already grouped
+            if (updatingSearchResults) {
+                return;
+            }
 
-            List<PageSearchResult> list = new ArrayList<>(itemMap.values());
-            Collections.sort(list);
-            pageSearchResults.setAll(list);
+            // results that get appended to the list only need to be added to the groups
+            boolean appended = change.next() && change.wasAdded() && !change.wasRemoved()
+                    && change.getTo() == change.getList().size() && !change.next();
+            if (appended) {
+                change.reset();
+                change.next();
+                groupSearchResults(change.getAddedSubList(), true);
+            } else {
+                groupSearchResults(view.getSearchResults(), false);
+            }
         });
 
         searchResultListView.getStyleClass().add("search-result-list-view");
@@ -99,8 +161,8 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         searchResultListView.setItems(pageSearchResults);
         searchResultListView.getSelectionModel().selectedItemProperty().addListener(it -> {
             PageSearchResult result = searchResultListView.getSelectionModel().getSelectedItem();
-            if (result != null) {
-                view.setSelectedSearchResult(result.getItems().get(0));
+            if (result != null && (view.getSelectedSearchResult() == null || view.getSelectedSearchResult().getPageNumber() != result.getPageNumber())) {
+                loadPageSearchResult(result, this::selectFirstSearchResult);
             }
         });
 
@@ -142,7 +204,12 @@ public class PDFViewSkin extends SkinBase<PDFView> {
                 pageSearchResults.stream()
                         .filter(result -> result.getPageNumber() == view.getPage())
                         .findFirst()
-                        .ifPresent(result -> searchResultListView.getSelectionModel().select(result));
+                        .ifPresent(result -> {
+                            searchResultListView.getSelectionModel().select(result);
+
+                            // the markers of the page are needed now
+                            loadPageSearchResult(result, null);
+                        });
             }
         });
 
@@ -162,9 +229,16 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         HBox searchNavigator = createSearchNavigator();
 
         MainAreaScrollPane mainAreaScrollPane = new MainAreaScrollPane();
+        mainAreaScrollPane.visibleProperty().bind(view.continuousScrollingProperty().not());
+        mainAreaScrollPane.managedProperty().bind(view.continuousScrollingProperty().not());
         VBox.setVgrow(mainAreaScrollPane, Priority.ALWAYS);
 
-        VBox mainArea = new VBox(searchNavigator, mainAreaScrollPane);
+        ContinuousPageListView continuousPageListView = new ContinuousPageListView();
+        continuousPageListView.visibleProperty().bind(view.continuousScrollingProperty());
+        continuousPageListView.managedProperty().bind(view.continuousScrollingProperty());
+        VBox.setVgrow(continuousPageListView, Priority.ALWAYS);
+
+        VBox mainArea = new VBox(searchNavigator, mainAreaScrollPane, continuousPageListView);
         mainArea.getStyleClass().add("main-area");
         mainArea.setFillWidth(true);
 
@@ -181,10 +255,14 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         borderPane.setFocusTraversable(false);
 
         getChildren().add(borderPane);
+        getChildren().add(createLoadingPane());
 
         view.documentProperty().addListener(it -> {
-            mainAreaScrollPane.setImage(null);
+            mainAreaScrollPane.setImage(null, 0);
+            cacheGeneration++;
             imageCache.clear();
+            pageCache.clear();
+            tileCache.clear();
             view.setPage(-1);
             view.setPage(0);
         });
@@ -192,6 +270,100 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         view.searchTextProperty().addListener(it -> search());
     }
 
+    /**
+     * Returns the cache used for storing the thumbnails of the pages, e.g. for monitoring
+     * its hit, miss, and eviction counts.
+     *
+     * @return the thumbnail cache
+     * @see PDFView#cacheThumbnailsProperty()
+     * @see PDFView#thumbnailCacheLimitProperty()
+     */
+    public final ImageCache<Integer> getThumbnailCache() {
+        return imageCache;
+    }
+
+    /**
+     * Returns the cache used for storing the full resolution images of the pages shown in the
+     * main area, e.g. for monitoring its hit, miss, and eviction counts.
+     *
+     * @return the page cache
+     * @see PDFView#pageCacheLimitProperty()
+     */
+    public final ImageCache<PageKey> getPageCache() {
+        return pageCache;
+    }
+
+    /**
+     * The key used for the page cache. Pages get cached per scale, which is the product of
+     * the page scale and the zoom factor. The page rotation is not part of the key, as pages
+     * get rotated by the view and not by the renderer. Neither is the document, the cache gets
+     * cleared when the document changes and pages of a replaced document never get cached.
+     *
+     * @param page  the page number
+     * @param scale the scale at which the page was rendered
+     */
+    public record PageKey(int page, float scale) {
+    }
+
+    private void updateRenderZoomFactor() {
+        PDFView view = getSkinnable();
+        Duration delay = view.getZoomRenderDelay();
+        if (delay == null || delay.lessThanOrEqualTo(Duration.ZERO) || view.getDocument() == null) {
+            zoomRenderDelay.stop();
+            renderZoomFactor.set(view.getZoomFactor());
+        } else {
+            zoomRenderDelay.setDuration(delay);
+            zoomRenderDelay.playFromStart();
+        }
+    }
+
+    /*
+     * Returns the scale at which the thumbnail of the given page has to be rendered, so that
+     * the longer side of the page matches the thumbnail size in physical pixels.
+     */
+    private float getThumbnailScale(int pageNumber) {
+        PDFView view = getSkinnable();
+        Document document = view.getDocument();
+        if (document == null || pageNumber < 0 || pageNumber >= document.getNumberOfPages()) {
+            return 1;
+        }
+
+        Dimension2D pageSize = document.getPageSize(pageNumber);
+        double longerSide = Math.max(pageSize.getWidth(), pageSize.getHeight());
+
+        Window window = view.getScene() != null ? view.getScene().getWindow() : null;
+        double outputScale = window != null ? window.getOutputScaleY() : Screen.getPrimary().getOutputScaleY();
+
+        return (float) (view.getThumbnailSize() * outputScale / longerSide);
+    }
+
+    private void updateThumbnailStore() {
+        File directory = getSkinnable().getThumbnailStoreDirectory();
+        thumbnailStore = directory != null ? new ThumbnailStore(directory, getSkinnable().getThumbnailStoreLimit()) : null;
+    }
+
+    /**
+     * Returns the scheduler used for all render work, e.g. for monitoring the number of
+     * waiting tasks per priority.
+     *
+     * @return the render scheduler
+     */
+    public final RenderScheduler getRenderScheduler() {
+        return scheduler;
+    }
+
+    private void updateRenderWorkerCount() {
+        PDFView view = getSkinnable();
+        Document document = view.getDocument();
+
+        int workerCount = view.getRenderWorkerCount();
+        if (document != null) {
+            workerCount = Math.min(workerCount, Math.max(1, document.getMaxConcurrentRenders()));
+        }
+
+        scheduler.setWorkerCount(workerCount);
+    }
+
     private <T> void maybeScrollTo(ListView<T> listView, T item) {
         /*
          * We want to make sure that the selected result will be visible within the list view,
@@ -223,32 +395,182 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         }
     }
 
+    private void groupSearchResults(List<? extends SearchResult> searchResults, boolean append) {
+        Map<Integer, PageSearchResult> itemMap = new HashMap<>();
+        if (append) {
+            pageSearchResults.forEach(pageSearchResult -> itemMap.put(pageSearchResult.getPageNumber(), pageSearchResult));
+        }
+
+        int lastPageNumber = pageSearchResults.isEmpty() || !append ? -1 : pageSearchResults.getLast().getPageNumber();
+        boolean sorted = true;
+
+        List<PageSearchResult> newPageSearchResults = new ArrayList<>();
+        for (SearchResult result : searchResults) {
+            PageSearchResult pageSearchResult = itemMap.get(result.getPageNumber());
+            if (pageSearchResult == null) {
+                pageSearchResult = new PageSearchResult(result.getPageNumber(), result.getSearchText());
+                itemMap.put(result.getPageNumber(), pageSearchResult);
+                newPageSearchResults.add(pageSearchResult);
+            }
+            pageSearchResult.getItems().add(result);
+            sorted &= result.getPageNumber() > lastPageNumber;
+        }
+
+        if (append && sorted) {
+            // results get found page by page, so usually they simply have to be added at the end
+            Collections.sort(newPageSearchResults);
+            pageSearchResults.addAll(newPageSearchResults);
+        } else {
+            List<PageSearchResult> list = new ArrayList<>(itemMap.values());
+            Collections.sort(list);
+            pageSearchResults.setAll(list);
+        }
+    }
+
     private SearchService searchService;
+    private boolean searchResultsReplaced;
+    private boolean updatingSearchResults;
 
     private void search() {
         if (searchService == null) {
             searchService = new SearchService();
             searchService.setOnSucceeded(evt -> {
-                getSkinnable().getSearchResults().setAll(searchService.getValue());
-
-                if (!searchService.getValue().isEmpty()) {
-                    getSkinnable().setSelectedSearchResult(searchService.getValue().get(0));
-                } else {
+                // non-empty results have already been added while searching
+                if (searchService.getValue().isEmpty()) {
+                    updateSearchResults(() -> {
+                        pageSearchResults.clear();
+                        getSkinnable().getSearchResults().clear();
+                    });
                     getSkinnable().setSelectedSearchResult(null);
                 }
             });
         }
 
+        searchResultsReplaced = false;
         searchService.restart();
     }
 
-    class SearchService extends Service<List<PDFView.SearchResult>> {
+    private void updateSearchResults(Runnable update) {
+        updatingSearchResults = true;
+        try {
+            update.run();
+        } finally {
+            updatingSearchResults = false;
+        }
+    }
+
+    /*
+     * Called on the FX thread for every batch of pages found by the current search. The first
+     * batch replaces the results of the previous search, so the list does not flicker while typing.
+     */
+    private void addSearchResults(List<PageSearchResult> batch) {
+        List<SearchResult> results = new ArrayList<>();
+        batch.forEach(pageSearchResult -> results.addAll(pageSearchResult.getItems()));
+
+        if (searchResultsReplaced) {
+            updateSearchResults(() -> {
+                pageSearchResults.addAll(batch);
+                getSkinnable().getSearchResults().addAll(results);
+            });
+        } else {
+            searchResultsReplaced = true;
+            updateSearchResults(() -> {
+                pageSearchResults.setAll(batch);
+                getSkinnable().getSearchResults().setAll(results);
+            });
+            loadPageSearchResult(batch.getFirst(), this::selectFirstSearchResult);
+        }
+    }
+
+    private void selectFirstSearchResult(PageSearchResult pageSearchResult) {
+        if (!pageSearchResult.getItems().isEmpty()) {
+            getSkinnable().setSelectedSearchResult(pageSearchResult.getItems().getFirst());
+        }
+    }
+
+    private void selectLastSearchResult(PageSearchResult pageSearchResult) {
+        if (!pageSearchResult.getItems().isEmpty()) {
+            getSkinnable().setSelectedSearchResult(pageSearchResult.getItems().getLast());
+        }
+    }
+
+    // the page whose results are needed for a selection, only the most recent request counts
+    private PageSearchResult selectionRequestPage;
+    private Consumer<PageSearchResult> selectionRequest;
+
+    private final Set<PageSearchResult> loadingPageSearchResults = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /*
+     * Makes sure that the search results of the given page have been loaded and passes the page
+     * to the given consumer once they are. Pages beyond the search result limit only know the
+     * number of their results, their results get loaded in the background when needed.
+     */
+    private void loadPageSearchResult(PageSearchResult pageSearchResult, Consumer<PageSearchResult> onLoaded) {
+        if (pageSearchResult.isLoaded()) {
+            if (onLoaded != null) {
+                selectionRequestPage = null;
+                selectionRequest = null;
+                onLoaded.accept(pageSearchResult);
+            }
+            return;
+        }
+
+        if (onLoaded != null) {
+            selectionRequestPage = pageSearchResult;
+            selectionRequest = onLoaded;
+        }
+
+        if (!(getSkinnable().getDocument() instanceof SearchableDocument document) || !loadingPageSearchResults.add(pageSearchResult)) {
+            return;
+        }
+
+        Task<List<SearchResult>> task = new Task<>() {
+            @Override
+            protected List<SearchResult> call() {
+                return document.getSearchResults(pageSearchResult.getSearchText(), pageSearchResult.getPageNumber());
+            }
+        };
+
+        task.setOnSucceeded(evt -> {
+            loadingPageSearchResults.remove(pageSearchResult);
+
+            // another search might have replaced the results in the meantime
+            if (pageSearchResults.stream().noneMatch(result -> result == pageSearchResult)) {
+                return;
+            }
+
+            List<SearchResult> results = task.getValue();
+            pageSearchResult.setItems(results);
+
+            if (!results.isEmpty()) {
+                ObservableList<SearchResult> searchResults = getSkinnable().getSearchResults();
+                int index = Collections.binarySearch(searchResults, results.getFirst());
+                int insertionIndex = index < 0 ? -index - 1 : index;
+                updateSearchResults(() -> searchResults.addAll(insertionIndex, results));
+            }
+
+            searchResultListView.refresh();
+
+            if (selectionRequestPage == pageSearchResult) {
+                Consumer<PageSearchResult> request = selectionRequest;
+                selectionRequestPage = null;
+                selectionRequest = null;
+                request.accept(pageSearchResult);
+            }
+        });
+        task.setOnFailed(evt -> loadingPageSearchResults.remove(pageSearchResult));
+
+        scheduler.execute(task, RenderScheduler.Priority.VISIBLE);
+    }
+
+    class SearchService extends Service<List<PageSearchResult>> {
         @Override
-        protected Task<List<PDFView.SearchResult>> createTask() {
-            PDFView.Document document = getSkinnable().getDocument();
+        protected Task<List<PageSearchResult>> createTask() {
+            PDFView view = getSkinnable();
+            PDFView.Document document = view.getDocument();
 
             if (document instanceof PDFView.SearchableDocument) {
-                return new SearchTask((PDFView.SearchableDocument) document, getSkinnable().getSearchText());
+                return new SearchTask((PDFView.SearchableDocument) document, view.getSearchText(), view.getMaxSearchResults(), PDFViewSkin.this::addSearchResults);
             } else {
                 throw new SearchException("Document is not searchable.");
             }
@@ -261,37 +583,115 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         }
     }
 
-    static class SearchTask extends Task<List<PDFView.SearchResult>> {
+    /*
+     * Passes the results to the FX thread while they are being found. The results get grouped
+     * by page on the searching thread. Pages that get found while the FX thread is still busy
+     * with the previous batch are collected into one batch.
+     */
+    static class SearchTask extends Task<List<PageSearchResult>> {
 
         private final SearchableDocument document;
         private final String searchText;
+        private final int maxResults;
+        private final Consumer<List<PageSearchResult>> batchConsumer;
+
+        // guarded by pendingResults
+        private final List<PageSearchResult> pendingResults = new ArrayList<>();
+        private boolean flushScheduled;
 
-        public SearchTask(SearchableDocument document, String searchText) {
+        public SearchTask(SearchableDocument document, String searchText, int maxResults, Consumer<List<PageSearchResult>> batchConsumer) {
             this.document = document;
             this.searchText = searchText;
+            this.maxResults = maxResults;
+            this.batchConsumer = batchConsumer;
         }
 
         @Override
-        protected List<SearchResult> call() throws Exception {
+        protected List<PageSearchResult> call() throws Exception {
             if (StringUtils.isBlank(searchText)) {
                 return Collections.emptyList();
             }
 
-            Thread.sleep(300);
+            // wait for the user to stop typing unless the document can be searched instantly
+            if (!document.isSearchIndexed()) {
+                Thread.sleep(300);
 
-            if (isCancelled()) {
-                return Collections.emptyList();
+                if (isCancelled()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            List<PageSearchResult> results = new ArrayList<>();
+            document.search(searchText, maxResults, pageResults -> {
+                List<PageSearchResult> pages = group(pageResults);
+                results.addAll(pages);
+                publish(pages);
+            }, (pageNumber, resultCount) -> {
+                List<PageSearchResult> pages = List.of(new PageSearchResult(pageNumber, searchText, resultCount));
+                results.addAll(pages);
+                publish(pages);
+            }, this::isCancelled);
+            return results;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return super.cancel(false); // #21: Must not interrupt pdfbox otherwise the PDDocument will no longer be able to render pages
+        }
+
+        // the results are in page order, so the results of a page are next to each other
+        private List<PageSearchResult> group(List<SearchResult> results) {
+            List<PageSearchResult> pages = new ArrayList<>();
+            for (SearchResult result : results) {
+                if (pages.isEmpty() || pages.getLast().getPageNumber() != result.getPageNumber()) {
+                    pages.add(new PageSearchResult(result.getPageNumber(), searchText));
+                }
+                pages.getLast().getItems().add(result);
+            }
+            return pages;
+        }
+
+        private void publish(List<PageSearchResult> pages) {
+            synchronized (pendingResults) {
+                pendingResults.addAll(pages);
+                if (flushScheduled) {
+                    return;
+                }
+                flushScheduled = true;
+            }
+
+            Platform.runLater(this::flush);
+        }
+
+        // runs before the task succeeds, as both get posted to the FX thread in that order
+        private void flush() {
+            List<PageSearchResult> batch;
+            synchronized (pendingResults) {
+                batch = new ArrayList<>(pendingResults);
+                pendingResults.clear();
+                flushScheduled = false;
             }
 
-            return document.getSearchResults(searchText);
+            if (!isCancelled() && !batch.isEmpty()) {
+                batchConsumer.accept(batch);
+            }
         }
     }
     
     class SelectionService extends Service<Selection> {
+        private int pageNumber = -1;
         private Point2D start, end;
         private Selection.Mode mode;
         private volatile boolean restartLater;
 
+        public int getPageNumber() {
+            return pageNumber;
+        }
+
+        public void setPageNumber(int pageNumber) {
+            this.pageNumber = pageNumber;
+        }
+
         public void setStart(Point2D start) {
             this.start = start;
             this.end = null;
@@ -307,7 +707,7 @@ public class PDFViewSkin extends SkinBase<PDFView> {
 
         @Override
         protected Task<Selection> createTask() {
-            return new SelectionTask(getSkinnable().getDocument(), getSkinnable().getPage(), start, end, mode);
+            return new SelectionTask(getSkinnable().getDocument(), pageNumber, start, end, mode);
         }
 
         public void restartLater() {
@@ -487,11 +887,37 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         );
     }
 
+    private VBox createLoadingPane() {
+        PDFView view = getSkinnable();
+
+        ProgressIndicator progressIndicator = new ProgressIndicator();
+
+        Label loadingLabel = new Label();
+        loadingLabel.getStyleClass().add("loading-label");
+
+        view.loadTaskProperty().addListener((obs, oldTask, newTask) -> {
+            progressIndicator.progressProperty().unbind();
+            loadingLabel.textProperty().unbind();
+            if (newTask != null) {
+                progressIndicator.progressProperty().bind(newTask.progressProperty());
+                loadingLabel.textProperty().bind(newTask.messageProperty());
+            }
+        });
+
+        // covers the whole view, so that the user can not interact with the old document while the new one is loading
+        VBox loadingPane = new VBox(10, progressIndicator, loadingLabel);
+        loadingPane.getStyleClass().add("loading-pane");
+        loadingPane.setAlignment(Pos.CENTER);
+        loadingPane.visibleProperty().bind(view.loadingProperty());
+
+        return loadingPane;
+    }
+
     private HBox createSearchNavigator() {
         PDFView view = getSkinnable();
 
         Label searchLabel = new Label();
-        searchLabel.textProperty().bind(Bindings.createObjectBinding(() -> "Found " + view.getSearchResults().size() + " occurrences on " + pageSearchResults.size() + " pages", view.getSearchResults(), pageSearchResults));
+        searchLabel.textProperty().bind(Bindings.createObjectBinding(() -> "Found " + pageSearchResults.stream().mapToInt(PageSearchResult::getMatchCount).sum() + " occurrences on " + pageSearchResults.size() + " pages", pageSearchResults));
         searchLabel.getStyleClass().add("search-result-label");
 
         Button previousResultButton = new Button();
@@ -514,7 +940,8 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         doneButton.setOnAction(evt -> view.setSearchText(null));
         doneButton.getStyleClass().addAll("search-bar-button");
 
-        BooleanBinding searchResultsAvailable = Bindings.isNotEmpty(view.getSearchResults());
+        // the pages beyond the search result limit do not have any search results yet
+        BooleanBinding searchResultsAvailable = Bindings.isNotEmpty(pageSearchResults);
 
         HBox buttonBox = new HBox(previousResultButton, nextResultButton);
         buttonBox.getStyleClass().add("button-box");
@@ -528,23 +955,45 @@ public class PDFViewSkin extends SkinBase<PDFView> {
     }
 
     public final void showNextSearchResult() {
-        PDFView view = getSkinnable();
-        int index = view.getSearchResults().indexOf(view.getSelectedSearchResult());
-        if (index < view.getSearchResults().size() - 1) {
-            view.setSelectedSearchResult(view.getSearchResults().get(index + 1));
-        } else {
-            view.setSelectedSearchResult(view.getSearchResults().get(0));
-        }
+        showSearchResult(1);
     }
 
     public final void showPreviousSearchResult() {
+        showSearchResult(-1);
+    }
+
+    /*
+     * Steps through the results page by page, as the results of the pages beyond the search
+     * result limit have to be loaded first.
+     */
+    private void showSearchResult(int direction) {
+        if (pageSearchResults.isEmpty()) {
+            return;
+        }
+
         PDFView view = getSkinnable();
-        int index = view.getSearchResults().indexOf(view.getSelectedSearchResult());
-        if (index > 0) {
-            view.setSelectedSearchResult(view.getSearchResults().get(index - 1));
-        } else {
-            view.setSelectedSearchResult(view.getSearchResults().get(view.getSearchResults().size() - 1));
+        SearchResult selectedResult = view.getSelectedSearchResult();
+
+        int pageIndex = -1;
+        for (int index = 0; selectedResult != null && index < pageSearchResults.size(); index++) {
+            if (pageSearchResults.get(index).getPageNumber() == selectedResult.getPageNumber()) {
+                pageIndex = index;
+                break;
+            }
+        }
+
+        if (pageIndex != -1) {
+            List<SearchResult> items = pageSearchResults.get(pageIndex).getItems();
+            int index = items.indexOf(selectedResult);
+            if (index != -1 && index + direction >= 0 && index + direction < items.size()) {
+                view.setSelectedSearchResult(items.get(index + direction));
+                return;
+            }
         }
+
+        int size = pageSearchResults.size();
+        int nextPageIndex = pageIndex == -1 ? (direction > 0 ? 0 : size - 1) : (pageIndex + direction + size) % size;
+        loadPageSearchResult(pageSearchResults.get(nextPageIndex), direction > 0 ? this::selectFirstSearchResult : this::selectLastSearchResult);
     }
 
     private void updateMaximumValue(PageNumberTextField pageField) {
@@ -647,6 +1096,10 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         private final Pane pane;
         private final Group group;
         private final RenderService mainAreaRenderService = new RenderService(false);
+        private final RenderService previewRenderService = new RenderService(true);
+        private final TileLayer tileLayer = new TileLayer(this, false);
+        private final PagePrefetcher prefetcher = new PagePrefetcher();
+        private final HighlightLayer highlightLayer = new HighlightLayer();
         private final Rectangle bouncer = new Rectangle();
         private ImageView imageView;
 
@@ -660,8 +1113,7 @@ public class PDFViewSkin extends SkinBase<PDFView> {
             bouncer.visibleProperty().bind(pdfView.selectedSearchResultProperty().isNotNull());
 
             pdfView.selectedSearchResultProperty().addListener(it -> bounceSearchResult());
-            pdfView.getSearchResults().addListener((Observable it) -> mainAreaRenderService.restart());
-            pdfView.selectionProperty().addListener((Observable it) -> mainAreaRenderService.restartLater());
+            highlightLayer.pageNumberProperty().bind(pdfView.pageProperty());
 
             mainAreaRenderService.setOnSucceeded(evt -> {
                 double vValue = requestedVValue.get();
@@ -748,10 +1200,11 @@ public class PDFViewSkin extends SkinBase<PDFView> {
                 protected void layoutChildren() {
                     super.layoutChildren();
 
+                    // the main area is hidden in continuous mode and has no image then
                     SearchResult result = pdfView.getSelectedSearchResult();
-                    if (result != null) {
+                    if (result != null && !pdfView.isContinuousScrolling() && imageView.getImage() != null) {
 
-                        Rectangle2D marker = result.getScaledMarker(pdfView.getPageScale() * pdfView.getZoomFactor());
+                        Rectangle2D marker = result.getScaledMarker(getImageScale());
                         double scale = getWidth() / imageView.getImage().getWidth();
 
                         if (marker != null) {
@@ -809,6 +1262,7 @@ public class PDFViewSkin extends SkinBase<PDFView> {
             group.addEventHandler(MouseEvent.MOUSE_PRESSED, evt -> {
                 if (evt.getButton() == MouseButton.PRIMARY) {
                     group.setCursor(Cursor.TEXT);
+                    selectionService.setPageNumber(pdfView.getPage());
                     selectionService.setStart(getMouseEventPoint(evt));
                     selectionService.setEnd(getMouseEventPoint(evt));
                     selectionService.setMode(Selection.Mode.forClickCount(evt.getClickCount()));
@@ -896,13 +1350,82 @@ public class PDFViewSkin extends SkinBase<PDFView> {
 
             setContent(pane);
 
-            mainAreaRenderService.setExecutor(EXECUTOR);
-            mainAreaRenderService.scaleProperty().bind(pdfView.pageScaleProperty().multiply(pdfView.zoomFactorProperty()));
-            mainAreaRenderService.pageProperty().bind(pdfView.pageProperty());
+            mainAreaRenderService.setExecutor(scheduler.getExecutor(RenderScheduler.Priority.MAIN));
+            previewRenderService.setExecutor(scheduler.getExecutor(RenderScheduler.Priority.MAIN));
+
+            // while tiles are showing the details the page itself only needs to be rendered at page scale
+            mainAreaRenderService.scaleProperty().bind(Bindings.createFloatBinding(() -> isTiledRenderingActive(false) ? pdfView.getPageScale() : pdfView.getPageScale() * (float) renderZoomFactor.get(),
+                    pdfView.pageScaleProperty(), renderZoomFactor, pdfView.tiledRenderingProperty(), pdfView.showAllProperty(), pdfView.continuousScrollingProperty()));
+
+            InvalidationListener tileUpdateListener = it -> tileLayer.requestTileUpdate();
+            hvalueProperty().addListener(tileUpdateListener);
+            vvalueProperty().addListener(tileUpdateListener);
+            viewportBoundsProperty().addListener(tileUpdateListener);
+            image.addListener(tileUpdateListener);
+            pdfView.pageProperty().addListener(tileUpdateListener);
+            renderZoomFactor.addListener(tileUpdateListener);
+            pdfView.pageScaleProperty().addListener(tileUpdateListener);
+            pdfView.tiledRenderingProperty().addListener(tileUpdateListener);
+            pdfView.continuousScrollingProperty().addListener(tileUpdateListener);
+            pdfView.pageRotationProperty().addListener(tileUpdateListener);
+            tileLayer.pageNumberProperty().bind(pdfView.pageProperty());
+            pdfView.documentProperty().addListener(it -> prefetcher.cancel());
+            pdfView.pageProperty().addListener((obs, oldPage, newPage) -> prefetcher.pageChanged(oldPage.intValue(), newPage.intValue()));
+
+            /*
+             * A page that has already been rendered at the current scale gets shown right away.
+             * Otherwise, progressive rendering shows the cached thumbnail or a quick low resolution
+             * rendering of the new page until the full resolution rendering is available. This
+             * listener has to be registered before the main area render service gets bound to the
+             * page property, so that the preview gets submitted to the executor first.
+             */
+            previewRenderService.valueProperty().addListener(it -> {
+                Image image = previewRenderService.getValue();
+                if (image != null && previewRenderService.getPage() == pdfView.getPage() && mainAreaRenderService.isRunning()) {
+                    showPreview(image);
+                }
+            });
+
+            pdfView.pageProperty().addListener(it -> {
+                previewRenderService.cancel();
+
+                int page = pdfView.getPage();
+                if (pdfView.getDocument() == null || page < 0 || pdfView.isContinuousScrolling()) {
+                    return;
+                }
+
+                if (showCachedPage()) {
+                    return;
+                }
+
+                if (pdfView.isProgressiveRendering()) {
+                    Image image = imageCache.get(page);
+                    if (image != null) {
+                        showPreview(image);
+                    } else {
+                        previewRenderService.setScale(getThumbnailScale(page));
+                        if (previewRenderService.getPage() == page) {
+                            previewRenderService.restart();
+                        } else {
+                            previewRenderService.setPage(page);
+                        }
+                    }
+                }
+            });
+
+            mainAreaRenderService.scaleProperty().addListener(it -> showCachedPage());
+
+            // while zooming, switch to a cached rendering that is closer to the new zoom factor, if there is one
+            pdfView.zoomFactorProperty().addListener(it -> showNearestCachedPage());
+
+            // the continuous page list view renders its own pages, the scroll pane is hidden then
+            mainAreaRenderService.pageProperty().bind(Bindings.when(pdfView.continuousScrollingProperty()).then(-1).otherwise(pdfView.pageProperty()));
             mainAreaRenderService.valueProperty().addListener(it -> {
                 Image image = mainAreaRenderService.getValue();
                 if (image != null) {
-                    setImage(image);
+                    previewRenderService.cancel();
+                    setImage(image, mainAreaRenderService.getScale());
+                    prefetcher.prefetch(mainAreaRenderService.getPage(), mainAreaRenderService.getScale());
                 }
                 wrapper.requestLayout(); // bouncer needs layout now
             });
@@ -928,13 +1451,66 @@ public class PDFViewSkin extends SkinBase<PDFView> {
             layoutImage();
         }
         
+        private boolean showCachedPage() {
+            float scale = mainAreaRenderService.getScale();
+            Image image = pageCache.get(new PageKey(getSkinnable().getPage(), scale));
+            if (image != null) {
+                showImage(image, scale);
+                return true;
+            }
+            return false;
+        }
+
+        private void showNearestCachedPage() {
+            PDFView pdfView = getSkinnable();
+            if (pdfView.isTiledRendering() || pdfView.isShowAll() || pdfView.isContinuousScrolling() || getImage() == null) {
+                return;
+            }
+
+            int page = pdfView.getPage();
+            float targetScale = pdfView.getPageScale() * (float) pdfView.getZoomFactor();
+
+            PageKey nearestKey = null;
+            float nearestDistance = Math.abs(getImageScale() - targetScale);
+            for (PageKey key : pageCache.keys()) {
+                float distance = Math.abs(key.scale() - targetScale);
+                if (key.page() == page && distance < nearestDistance) {
+                    nearestKey = key;
+                    nearestDistance = distance;
+                }
+            }
+
+            Image image = pageCache.get(nearestKey);
+            if (image != null) {
+                setImage(image, nearestKey.scale());
+            }
+        }
+
+        /*
+         * Previews are thumbnails, either rendered or embedded in the document, so their scale
+         * has to be derived from their actual size.
+         */
+        private void showPreview(Image image) {
+            Dimension2D pageSize = getSkinnable().getDocument().getPageSize(getSkinnable().getPage());
+            showImage(image, (float) (image.getWidth() / pageSize.getWidth()));
+        }
+
+        private void showImage(Image image, float scale) {
+            setImage(image, scale);
+
+            double vValue = requestedVValue.get();
+            if (vValue != -1) {
+                setVvalue(vValue);
+            }
+        }
+
         private Point2D getMouseEventPoint(MouseEvent evt) {
             double ImageToWrapperRatio = imageView.getImage().getWidth() / wrapper.getWidth();
             Point3D point = evt.getPickResult().getIntersectedPoint();
             
             Point2D pointInImageCoordinates = new Point2D(
-                point.getX() * ImageToWrapperRatio / mainAreaRenderService.getScale(), 
-                point.getY() * ImageToWrapperRatio / mainAreaRenderService.getScale()
+                point.getX() * ImageToWrapperRatio / getImageScale(), 
+                point.getY() * ImageToWrapperRatio / getImageScale()
             );
             return pointInImageCoordinates;
         }
@@ -948,7 +1524,8 @@ public class PDFViewSkin extends SkinBase<PDFView> {
 
             SearchResult selectedSearchResult = getSkinnable().getSelectedSearchResult();
 
-            if (selectedSearchResult == null) {
+            // the bouncer is part of the main area, continuous mode only highlights the result
+            if (selectedSearchResult == null || getSkinnable().isContinuousScrolling()) {
                 return;
             }
 
@@ -994,8 +1571,20 @@ public class PDFViewSkin extends SkinBase<PDFView> {
 
         private final ObjectProperty<Image> image = new SimpleObjectProperty<>(this, "image");
 
-        private void setImage(Image image) {
+        // the scale at which the current image was rendered, previews use a lower scale than the page
+        private float imageScale;
+
+        private void setImage(Image image, float scale) {
+            this.imageScale = scale;
             this.image.set(image);
+
+            if (image != null && scale > 0) {
+                highlightLayer.setPageWidth(image.getWidth() / scale);
+            }
+        }
+
+        private float getImageScale() {
+            return imageScale;
         }
 
         private Image getImage() {
@@ -1006,7 +1595,7 @@ public class PDFViewSkin extends SkinBase<PDFView> {
             imageView = new ImageView();
             imageView.imageProperty().bind(image);
             imageView.setPreserveRatio(true);
-            wrapper.getChildren().setAll(imageView, bouncer);
+            wrapper.getChildren().setAll(imageView, tileLayer, highlightLayer, bouncer);
 
             requestLayout();
 
@@ -1065,12 +1654,11 @@ public class PDFViewSkin extends SkinBase<PDFView> {
     private class RenderService extends Service<Image> {
 
         private final boolean thumbnailRenderer;
-        private volatile boolean restartLater;
 
         public RenderService(boolean thumbnailRenderer) {
             this.thumbnailRenderer = thumbnailRenderer;
 
-            setExecutor(EXECUTOR);
+            setExecutor(scheduler.getExecutor(thumbnailRenderer ? RenderScheduler.Priority.VISIBLE : RenderScheduler.Priority.MAIN));
 
             InvalidationListener restartListener = it -> restart();
             page.addListener(restartListener);
@@ -1083,6 +1671,10 @@ public class PDFViewSkin extends SkinBase<PDFView> {
             return scale.get();
         }
 
+        private void setScale(float scale) {
+            this.scale.set(scale);
+        }
+
         FloatProperty scaleProperty() {
             return scale;
         }
@@ -1106,34 +1698,29 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         protected Task<Image> createTask() {
             return new RenderTask(thumbnailRenderer, getPage(), getScale());
         }
-        
-        public void restartLater() {
-            if (isRunning()) {
-                restartLater = true;
-            } else {
-                restart();
-            }
-        }
-        
-        @Override
-        protected void succeeded() {
-            if (restartLater) {
-                restartLater = false;
-                restart();
-            }
-        }
     }
 
     private class RenderTask extends Task<Image> {
 
+        private final Document document;
         private final int page;
         private final float scale;
         private final boolean thumbnail;
 
+        // the properties of the view must only be read on the FX thread, i.e. here
+        private final int generation;
+        private final boolean cacheThumbnails;
+        private final PDFView.RenderQuality thumbnailRenderQuality;
+
         public RenderTask(boolean thumbnail, int page, float scale) {
+            PDFView view = getSkinnable();
+            this.document = view.getDocument();
             this.thumbnail = thumbnail;
             this.page = page;
             this.scale = scale;
+            this.generation = cacheGeneration;
+            this.cacheThumbnails = view.isCacheThumbnails();
+            this.thumbnailRenderQuality = Objects.requireNonNullElse(view.getThumbnailRenderQuality(), PDFView.RenderQuality.HIGH);
         }
 
         @Override
@@ -1143,11 +1730,28 @@ public class PDFViewSkin extends SkinBase<PDFView> {
 
         @Override
         protected Image call() {
-            if (page >= 0 && page < getSkinnable().getDocument().getNumberOfPages()) {
+            if (document != null && page >= 0 && page < document.getNumberOfPages()) {
                 if (!isCancelled()) {
-                    Image renderedImage = renderPDFPage(page, scale);
-                    if (getSkinnable().isCacheThumbnails() && thumbnail) {
-                        imageCache.put(page, renderedImage);
+                    if (!thumbnail) {
+                        Image cachedImage = pageCache.get(new PageKey(page, scale));
+                        if (cachedImage != null) {
+                            return cachedImage;
+                        }
+                    }
+
+                    Image renderedImage = thumbnail ? renderThumbnail(page, scale) : renderPDFPage(page, scale);
+
+                    // the caches are not keyed by document, so images of a replaced document must not go in there
+                    if (isCancelled() || cacheGeneration != generation) {
+                        return renderedImage;
+                    }
+
+                    if (thumbnail) {
+                        if (cacheThumbnails) {
+                            imageCache.put(page, renderedImage);
+                        }
+                    } else {
+                        pageCache.put(new PageKey(page, scale), renderedImage);
                     }
                     return renderedImage;
                 }
@@ -1156,61 +1760,760 @@ public class PDFViewSkin extends SkinBase<PDFView> {
             return null;
         }
 
+        /*
+         * Thumbnails found in the store do not need the document at all. Otherwise the thumbnail
+         * embedded in the document gets used, and only if there is none the page gets rendered.
+         */
+        private Image renderThumbnail(int pageNumber, float scale) {
+            PDFView.RenderQuality quality = thumbnailRenderQuality;
+
+            ThumbnailStore store = thumbnailStore;
+            String contentHash = store != null ? document.getContentHash() : null;
+
+            if (contentHash != null) {
+                BufferedImage bufferedImage = store.loadEmbedded(contentHash, pageNumber);
+                if (bufferedImage == null) {
+                    bufferedImage = store.load(contentHash, pageNumber, scale, quality);
+                }
+                if (bufferedImage != null) {
+                    return ImageConverter.toFXImage(bufferedImage);
+                }
+            }
+
+            BufferedImage embeddedThumbnail = document.getEmbeddedThumbnail(pageNumber);
+            if (embeddedThumbnail != null) {
+                if (contentHash != null) {
+                    store.storeEmbedded(contentHash, pageNumber, embeddedThumbnail);
+                }
+                return ImageConverter.toFXImage(embeddedThumbnail);
+            }
+
+            BufferedImage bufferedImage = document.renderPage(pageNumber, scale, quality, this::isCancelled);
+            if (contentHash != null && !isCancelled()) {
+                store.store(contentHash, pageNumber, scale, quality, bufferedImage);
+            }
+            return ImageConverter.toFXImage(bufferedImage);
+        }
+
         private Image renderPDFPage(int pageNumber, float scale) {
-            BufferedImage bufferedImage = getSkinnable().getDocument().renderPage(pageNumber, scale);
+            BufferedImage bufferedImage = document.renderPage(pageNumber, scale, this::isCancelled);
+            return ImageConverter.toFXImage(bufferedImage);
+        }
+    }
+
+    /**
+     * A layer placed on top of a page image that highlights the search results and the text
+     * selection of that page. The highlights are plain shapes, so changing the selection or
+     * stepping through the search results never requires the page to be rendered again.
+     */
+    class HighlightLayer extends Pane {
+
+        private final InvalidationListener updateListener = it -> updateHighlights();
 
-            // only highlight search results in the main view (for performance reasons)
-            if (!thumbnail) {
-                highlightSearchResults(pageNumber, scale, bufferedImage);
-                highlightSelection(pageNumber, scale, bufferedImage);
+        HighlightLayer() {
+            getStyleClass().add("highlight-layer");
+            setMouseTransparent(true);
+
+            PDFView view = getSkinnable();
+            view.getSearchResults().addListener(new WeakInvalidationListener(updateListener));
+            view.selectionProperty().addListener(new WeakInvalidationListener(updateListener));
+            view.searchResultColorProperty().addListener(new WeakInvalidationListener(updateListener));
+            view.selectionColorProperty().addListener(new WeakInvalidationListener(updateListener));
+            pageNumber.addListener(updateListener);
+            pageWidth.addListener(it -> requestLayout());
+        }
+
+        // the number of the page for which to show the highlights
+        private final IntegerProperty pageNumber = new SimpleIntegerProperty(this, "pageNumber", -1);
+
+        IntegerProperty pageNumberProperty() {
+            return pageNumber;
+        }
+
+        void setPageNumber(int pageNumber) {
+            this.pageNumber.set(pageNumber);
+        }
+
+        // the width of the page in PDF units, needed to map the markers to the size of this layer
+        private final DoubleProperty pageWidth = new SimpleDoubleProperty(this, "pageWidth");
+
+        void setPageWidth(double pageWidth) {
+            this.pageWidth.set(pageWidth);
+        }
+
+        private void updateHighlights() {
+            PDFView view = getSkinnable();
+            int page = pageNumber.get();
+
+            List<Rectangle> highlights = new ArrayList<>();
+
+            Color searchResultColor = view.getSearchResultColor().deriveColor(0, 1, 1, .5);
+            view.getSearchResults().stream()
+                    .filter(result -> result.getPageNumber() == page)
+                    .forEach(result -> highlights.add(createHighlight(result.getMarker(), searchResultColor, "search-result-highlight")));
+
+            Selection selection = view.getSelection();
+            if (selection != null && selection.getPageNumber() == page) {
+                Color selectionColor = view.getSelectionColor().deriveColor(0, 1, 1, .5);
+                selection.getMarker().forEach(marker -> highlights.add(createHighlight(marker, selectionColor, "selection-highlight")));
             }
 
-            return SwingFXUtils.toFXImage(bufferedImage, null);
+            getChildren().setAll(highlights);
         }
 
-        private void highlightSearchResults(int pageNumber, float scale, BufferedImage bufferedImage) {
-            List<SearchResult> searchResults = getSkinnable().getSearchResults().stream()
-                    .filter(result -> result.getPageNumber() == pageNumber)
-                    .collect(Collectors.toList());
+        private Rectangle createHighlight(Rectangle2D marker, Color color, String styleClass) {
+            Rectangle highlight = new Rectangle();
+            highlight.getStyleClass().add(styleClass);
+            highlight.setManaged(false);
+            highlight.setFill(color);
+            highlight.setUserData(marker);
+            return highlight;
+        }
 
-            if (!searchResults.isEmpty()) {
-                Graphics2D graphics = (Graphics2D) bufferedImage.getGraphics();
-                graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, .5f));
+        @Override
+        protected void layoutChildren() {
+            if (pageWidth.get() <= 0) {
+                return;
+            }
 
-                Color searchResultColor = getSkinnable().getSearchResultColor();
+            double scale = getWidth() / pageWidth.get();
 
-                graphics.setStroke(new BasicStroke(8));
-                graphics.setColor(new java.awt.Color((int) (255 * searchResultColor.getRed()), (int) (255 * searchResultColor.getGreen()), (int) (255 * searchResultColor.getBlue())));
+            getChildren().forEach(child -> {
+                Rectangle highlight = (Rectangle) child;
+                Rectangle2D marker = (Rectangle2D) highlight.getUserData();
+                highlight.setX(marker.getMinX() * scale);
+                highlight.setY(marker.getMinY() * scale);
+                highlight.setWidth(marker.getWidth() * scale);
+                highlight.setHeight(marker.getHeight() * scale);
+            });
+        }
+    }
+
+    /*
+     * Tiles get shown by the main area in single page mode and by the cells of the continuous
+     * page list view in continuous mode.
+     */
+    private boolean isTiledRenderingActive(boolean continuous) {
+        PDFView view = getSkinnable();
+        return view.isTiledRendering() && !view.isShowAll() && view.isContinuousScrolling() == continuous && renderZoomFactor.get() > 1;
+    }
+
+    private record TileKey(int page, float scale, int column, int row) {
+    }
+
+    /**
+     * A layer placed on top of a page image, either the one of the main area or the one of a
+     * cell of the continuous page list view. While the view is zoomed in the page itself only
+     * gets rendered at page scale. This layer then adds the tiles that intersect the visible area
+     * of the viewport (plus a margin) rendered at the full zoom factor. Tiles get cached by page,
+     * scale, and position, so scrolling back to an area does not require rendering it again.
+     */
+    class TileLayer extends Pane {
+
+        private static final int TILE_SIZE = 512;
+
+        // enough for 64 tiles
+        private static final long TILE_CACHE_LIMIT = 64L * TILE_SIZE * TILE_SIZE * 4;
+
+        private final Region viewport;
+        private final boolean continuous;
+
+        private final Map<TileKey, ImageView> tileViews = new HashMap<>();
+        private final Map<TileKey, TileTask> pendingTasks = new HashMap<>();
+
+        private final InvalidationListener documentListener = it -> {
+            clearTiles();
+            requestTileUpdate();
+        };
+
+        private boolean updateRequested;
+        private int imageWidth;
+
+        TileLayer(Region viewport, boolean continuous) {
+            this.viewport = viewport;
+            this.continuous = continuous;
+
+            getStyleClass().add("tile-layer");
+            setMouseTransparent(true);
+
+            widthProperty().addListener(it -> requestTileUpdate());
+            heightProperty().addListener(it -> requestTileUpdate());
+            pageNumber.addListener(it -> requestTileUpdate());
+            getSkinnable().documentProperty().addListener(new WeakInvalidationListener(documentListener));
 
-                searchResults.forEach(result -> {
-                    Rectangle2D highlightMarker = result.getScaledMarker(scale);
-                    graphics.fillRect(
-                            (int) highlightMarker.getMinX(),
-                            (int) highlightMarker.getMinY(),
-                            (int) highlightMarker.getWidth(),
-                            (int) highlightMarker.getHeight());
-                });
+            // the cells of a list view move instead of the viewport
+            if (continuous) {
+                localToSceneTransformProperty().addListener(it -> requestTileUpdate());
             }
         }
-        
-        private void highlightSelection(int pageNumber, float scale, BufferedImage bufferedImage) {
-            Selection selection = getSkinnable().getSelection();
-            if (selection != null && selection.getPageNumber() == pageNumber) {
-                Graphics2D graphics = (Graphics2D) bufferedImage.getGraphics();
-                graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, .5f));
 
-                Color selectionColor = getSkinnable().getSelectionColor();
+        // the number of the page for which to show the tiles
+        private final IntegerProperty pageNumber = new SimpleIntegerProperty(this, "pageNumber", -1);
+
+        IntegerProperty pageNumberProperty() {
+            return pageNumber;
+        }
+
+        void setPageNumber(int pageNumber) {
+            this.pageNumber.set(pageNumber);
+        }
+
+        /*
+         * Several properties usually change within the same pulse (e.g. page and image), so
+         * we only update the tiles once, after all of them have been changed.
+         */
+        void requestTileUpdate() {
+            if (!updateRequested) {
+                updateRequested = true;
+                Platform.runLater(this::updateTiles);
+            }
+        }
+
+        private void clearTiles() {
+            pendingTasks.values().forEach(Task::cancel);
+            pendingTasks.clear();
+            tileViews.clear();
+            getChildren().clear();
+        }
+
+        private void updateTiles() {
+            updateRequested = false;
+
+            PDFView view = getSkinnable();
+            Document document = view.getDocument();
+            int page = pageNumber.get();
+
+            if (!isTiledRenderingActive(continuous) || document == null || page < 0 || page >= document.getNumberOfPages() || getWidth() <= 0 || getHeight() <= 0) {
+                clearTiles();
+                return;
+            }
+
+            // tiles get rendered for the settled zoom factor, while zooming they simply get scaled
+            float scale = view.getPageScale() * (float) renderZoomFactor.get();
+            Dimension2D pageSize = document.getPageSize(page);
+            imageWidth = (int) Math.max(1, Math.floor(pageSize.getWidth() * scale));
+            int imageHeight = (int) Math.max(1, Math.floor(pageSize.getHeight() * scale));
 
-                graphics.setStroke(new BasicStroke(8));
-                graphics.setColor(new java.awt.Color((int) (255 * selectionColor.getRed()), (int) (255 * selectionColor.getGreen()), (int) (255 * selectionColor.getBlue())));
-                selection.getScaledMarker(scale).forEach(highlightMarker -> {
-                    graphics.fillRect(
-                            (int) highlightMarker.getMinX(),
-                            (int) highlightMarker.getMinY(),
-                            (int) highlightMarker.getWidth(),
-                            (int) highlightMarker.getHeight());
-                });                
+            // the number of layer units per image pixel
+            double factor = getWidth() / imageWidth;
+
+            Bounds visibleBounds = sceneToLocal(viewport.localToScene(viewport.getLayoutBounds()));
+            if (visibleBounds == null) {
+                return;
+            }
+
+            double margin = TILE_SIZE * factor;
+            double minX = Math.max(0, visibleBounds.getMinX() - margin) / factor;
+            double minY = Math.max(0, visibleBounds.getMinY() - margin) / factor;
+            double maxX = Math.min(getWidth(), visibleBounds.getMaxX() + margin) / factor;
+            double maxY = Math.min(getHeight(), visibleBounds.getMaxY() + margin) / factor;
+
+            Set<TileKey> requiredTiles = new HashSet<>();
+            if (minX < maxX && minY < maxY) {
+                int lastColumn = Math.min((imageWidth - 1) / TILE_SIZE, (int) (maxX / TILE_SIZE));
+                int lastRow = Math.min((imageHeight - 1) / TILE_SIZE, (int) (maxY / TILE_SIZE));
+                for (int column = (int) (minX / TILE_SIZE); column <= lastColumn; column++) {
+                    for (int row = (int) (minY / TILE_SIZE); row <= lastRow; row++) {
+                        requiredTiles.add(new TileKey(page, scale, column, row));
+                    }
+                }
+            }
+
+            // remove the tiles that are no longer needed
+            tileViews.entrySet().removeIf(entry -> {
+                if (!requiredTiles.contains(entry.getKey())) {
+                    getChildren().remove(entry.getValue());
+                    return true;
+                }
+                return false;
+            });
+
+            pendingTasks.entrySet().removeIf(entry -> {
+                if (!requiredTiles.contains(entry.getKey())) {
+                    entry.getValue().cancel();
+                    return true;
+                }
+                return false;
+            });
+
+            // add the missing ones
+            for (TileKey key : requiredTiles) {
+                if (pendingTasks.containsKey(key) || tileViews.containsKey(key)) {
+                    continue;
+                }
+
+                Image image = tileCache.get(key);
+                if (image != null) {
+                    showTile(key, image);
+                } else {
+                    int x = key.column() * TILE_SIZE;
+                    int y = key.row() * TILE_SIZE;
+                    Rectangle2D region = new Rectangle2D(x, y, Math.min(TILE_SIZE, imageWidth - x), Math.min(TILE_SIZE, imageHeight - y));
+
+                    TileTask task = new TileTask(document, key, region);
+                    task.setOnSucceeded(evt -> {
+                        if (pendingTasks.get(key) == task) {
+                            pendingTasks.remove(key);
+                            tileCache.put(key, task.getValue());
+                            showTile(key, task.getValue());
+                        }
+                    });
+                    // a tile that can not be rendered (or got cancelled) leaves the lower resolution page visible
+                    task.setOnFailed(evt -> pendingTasks.remove(key, task));
+
+                    pendingTasks.put(key, task);
+                    scheduler.execute(task, RenderScheduler.Priority.MAIN);
+                }
+            }
+        }
+
+        private void showTile(TileKey key, Image image) {
+            ImageView tileView = new ImageView(image);
+            tileView.setManaged(false);
+            tileViews.put(key, tileView);
+            getChildren().add(tileView);
+            requestLayout();
+        }
+
+        @Override
+        protected void layoutChildren() {
+            if (imageWidth <= 0) {
+                return;
             }
+
+            double factor = getWidth() / imageWidth;
+
+            tileViews.forEach((key, tileView) -> {
+                Image image = tileView.getImage();
+
+                // snap the tile edges to whole pixels to avoid gaps between neighbouring tiles
+                double x1 = Math.floor(key.column() * TILE_SIZE * factor);
+                double y1 = Math.floor(key.row() * TILE_SIZE * factor);
+                double x2 = Math.ceil((key.column() * TILE_SIZE + image.getWidth()) * factor);
+                double y2 = Math.ceil((key.row() * TILE_SIZE + image.getHeight()) * factor);
+
+                tileView.setLayoutX(x1);
+                tileView.setLayoutY(y1);
+                tileView.setFitWidth(x2 - x1);
+                tileView.setFitHeight(y2 - y1);
+            });
+        }
+    }
+
+    private class TileTask extends Task<Image> {
+
+        private final Document document;
+        private final TileKey key;
+        private final Rectangle2D region;
+
+        public TileTask(Document document, TileKey key, Rectangle2D region) {
+            this.document = document;
+            this.key = key;
+            this.region = region;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return super.cancel(false); // #21: Must not interrupt pdfbox otherwise the PDDocument will no longer be able to render pages
+        }
+
+        @Override
+        protected Image call() {
+            if (isCancelled()) {
+                return null;
+            }
+
+            BufferedImage bufferedImage = document.renderPageRegion(key.page(), key.scale(), region, this::isCancelled);
+            return ImageConverter.toFXImage(bufferedImage);
+        }
+    }
+
+    /**
+     * Renders the pages following the current page in the direction of the recent navigation into
+     * the page cache, so that turning to them becomes instant. Prefetching only starts after the
+     * current page has been rendered and all pending work gets cancelled when the user jumps to a
+     * page outside of the prefetched range.
+     */
+    private class PagePrefetcher {
+
+        private final Map<PageKey, PrefetchTask> pendingTasks = new HashMap<>();
+
+        private int direction = 1;
+
+        void pageChanged(int oldPage, int newPage) {
+            int delta = newPage - oldPage;
+            if (delta != 0 && Math.abs(delta) <= Math.max(1, getSkinnable().getPrefetchPageCount())) {
+                direction = Integer.signum(delta);
+            } else {
+                direction = 1;
+            }
+
+            // keep the tasks for pages that are still ahead of the reader, cancel everything else
+            pendingTasks.entrySet().removeIf(entry -> {
+                if (isAhead(newPage, entry.getKey().page())) {
+                    return false;
+                }
+                entry.getValue().cancel();
+                return true;
+            });
+        }
+
+        void prefetch(int page, float scale) {
+            prefetch(page, page, scale);
+        }
+
+        /*
+         * Prefetches the pages following the given range of pages, which is useful when several
+         * pages are visible at the same time.
+         */
+        void prefetch(int firstPage, int lastPage, float scale) {
+            Document document = getSkinnable().getDocument();
+            if (document == null || firstPage < 0 || lastPage < 0) {
+                return;
+            }
+
+            int page = direction > 0 ? lastPage : firstPage;
+            for (int i = 1; i <= getSkinnable().getPrefetchPageCount(); i++) {
+                int prefetchPage = page + direction * i;
+                if (prefetchPage < 0 || prefetchPage >= document.getNumberOfPages()) {
+                    break;
+                }
+
+                PageKey key = new PageKey(prefetchPage, scale);
+                if (pageCache.contains(key) || pendingTasks.containsKey(key)) {
+                    continue;
+                }
+
+                PrefetchTask task = new PrefetchTask(document, key);
+                task.setOnSucceeded(evt -> pendingTasks.remove(key, task));
+                task.setOnFailed(evt -> pendingTasks.remove(key, task));
+                pendingTasks.put(key, task);
+                scheduler.execute(task, RenderScheduler.Priority.PREFETCH);
+            }
+        }
+
+        void cancel() {
+            pendingTasks.values().forEach(Task::cancel);
+            pendingTasks.clear();
+        }
+
+        private boolean isAhead(int page, int otherPage) {
+            int distance = (otherPage - page) * direction;
+            return distance > 0 && distance <= getSkinnable().getPrefetchPageCount();
+        }
+    }
+
+    /**
+     * Shows all pages of the document below each other, one page per cell. The list view only
+     * creates cells for the pages inside the viewport, so only those pages get rendered. Cells
+     * that scroll out of the viewport get reused for other pages and release their images. The
+     * rendered images end up in the page cache, which keeps the memory bounded. While the view is
+     * zoomed in, the cells render their pages at page scale and show the details in tiles, just
+     * like the main area does.
+     *
+     * @see PDFView#continuousScrollingProperty()
+     */
+    class ContinuousPageListView extends ListView<Integer> {
+
+        private final PagePrefetcher prefetcher = new PagePrefetcher();
+
+        // the scale at which the cells render their pages, the same as the one used by the main area
+        private final FloatBinding renderScale;
+
+        private boolean updatingPage;
+
+        // the page scrolled to because the page of the view changed, it stays the current page as long as it is visible
+        private int requestedPage = -1;
+
+        ContinuousPageListView() {
+            PDFView view = getSkinnable();
+
+            getStyleClass().add("continuous-page-list-view");
+            setPlaceholder(null);
+            setFixedCellSize(-1);
+            setFocusTraversable(false);
+            setItems(pdfFilePages);
+            setCellFactory(listView -> new ContinuousPageListCell(this));
+
+            renderScale = Bindings.createFloatBinding(() -> view.isShowAll() || isTiledRenderingActive(true) ? view.getPageScale() : view.getPageScale() * (float) renderZoomFactor.get(),
+                    view.pageScaleProperty(), renderZoomFactor, view.showAllProperty(), view.tiledRenderingProperty(), view.continuousScrollingProperty());
+
+            view.pageProperty().addListener((obs, oldPage, newPage) -> {
+                prefetcher.pageChanged(oldPage.intValue(), newPage.intValue());
+                if (!updatingPage && view.isContinuousScrolling() && newPage.intValue() >= 0) {
+                    scrollToPage(newPage.intValue());
+                }
+            });
+
+            view.continuousScrollingProperty().addListener(it -> {
+                if (view.isContinuousScrolling() && view.getPage() >= 0) {
+                    scrollToPage(view.getPage());
+                } else {
+                    prefetcher.cancel();
+                }
+            });
+
+            // once the user scrolls, the current page follows the viewport again
+            addEventFilter(ScrollEvent.SCROLL, evt -> requestedPage = -1);
+            addEventFilter(MouseEvent.MOUSE_PRESSED, evt -> requestedPage = -1);
+            addEventFilter(KeyEvent.KEY_PRESSED, evt -> requestedPage = -1);
+
+            view.documentProperty().addListener(it -> prefetcher.cancel());
+
+            skinProperty().addListener(it -> {
+                VirtualFlow<?> virtualFlow = getVirtualFlow();
+                if (virtualFlow != null) {
+                    virtualFlow.positionProperty().addListener(obs -> updatePage());
+                }
+            });
+        }
+
+        FloatBinding renderScaleBinding() {
+            return renderScale;
+        }
+
+        /*
+         * Scrolling to a page places it at the top of the viewport, so the page in the middle of
+         * the viewport can be a different one. Without remembering the requested page, the page of
+         * the view would immediately change again, e.g. when selecting a short page in the
+         * thumbnail list.
+         */
+        private void scrollToPage(int page) {
+            requestedPage = page;
+            scrollTo(page);
+        }
+
+        private VirtualFlow<?> getVirtualFlow() {
+            return (VirtualFlow<?>) lookup("VirtualFlow");
+        }
+
+        /*
+         * The current page is the one that covers the vertical center of the viewport.
+         */
+        private void updatePage() {
+            PDFView view = getSkinnable();
+            VirtualFlow<?> virtualFlow = getVirtualFlow();
+            if (!view.isContinuousScrolling() || virtualFlow == null || virtualFlow.getFirstVisibleCell() == null) {
+                return;
+            }
+
+            if (requestedPage >= 0) {
+                if (requestedPage >= virtualFlow.getFirstVisibleCell().getIndex() && requestedPage <= virtualFlow.getLastVisibleCell().getIndex()) {
+                    return;
+                }
+                requestedPage = -1;
+            }
+
+            double center = virtualFlow.getHeight() / 2;
+            int page = virtualFlow.getFirstVisibleCell().getIndex();
+            for (int i = page; i <= virtualFlow.getLastVisibleCell().getIndex(); i++) {
+                IndexedCell<?> cell = virtualFlow.getVisibleCell(i);
+                if (cell != null && cell.getLayoutY() <= center && cell.getLayoutY() + cell.getHeight() > center) {
+                    page = i;
+                    break;
+                }
+            }
+
+            if (page != view.getPage()) {
+                updatingPage = true;
+                try {
+                    view.setPage(page);
+                } finally {
+                    updatingPage = false;
+                }
+            }
+        }
+
+        // called by the cells once they have rendered their page
+        void prefetch() {
+            VirtualFlow<?> virtualFlow = getVirtualFlow();
+            if (getSkinnable().isContinuousScrolling() && virtualFlow != null && virtualFlow.getFirstVisibleCell() != null) {
+                prefetcher.prefetch(virtualFlow.getFirstVisibleCell().getIndex(), virtualFlow.getLastVisibleCell().getIndex(), renderScale.get());
+            }
+        }
+    }
+
+    /**
+     * A cell of the continuous page list view. Text can be selected on the page of the cell in
+     * the same way as on the page of the main area.
+     */
+    class ContinuousPageListCell extends ListCell<Integer> {
+
+        // horizontal space reserved for the vertical scrollbar and the cell padding
+        private static final double HORIZONTAL_GAP = 40;
+
+        private final ContinuousPageListView listView;
+        private final ImageView imageView = new ImageView();
+        private final TileLayer tileLayer;
+        private final HighlightLayer highlightLayer = new HighlightLayer();
+        private final StackPane page = new StackPane();
+        private final RenderService renderService = new RenderService(false);
+        private final InvalidationListener sizeListener = it -> updatePageSize();
+        private final InvalidationListener tileUpdateListener = it -> requestTileUpdate();
+
+        // the width of the page in PDF units
+        private double pageWidth;
+
+        ContinuousPageListCell(ContinuousPageListView listView) {
+            this.listView = listView;
+
+            PDFView view = getSkinnable();
+
+            tileLayer = new TileLayer(listView, true);
+            page.getChildren().setAll(imageView, tileLayer, highlightLayer);
+
+            page.getStyleClass().add("image-view-wrapper");
+            page.rotateProperty().bind(view.pageRotationProperty());
+            imageView.setPreserveRatio(false);
+
+            setGraphic(new Group(page));
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+            setAlignment(Pos.CENTER);
+
+            renderService.scaleProperty().bind(listView.renderScaleBinding());
+            renderService.valueProperty().addListener(it -> {
+                Image image = renderService.getValue();
+                if (image != null) {
+                    imageView.setImage(image);
+                    listView.prefetch();
+                }
+            });
+
+            listView.widthProperty().addListener(new WeakInvalidationListener(sizeListener));
+            view.zoomFactorProperty().addListener(new WeakInvalidationListener(sizeListener));
+            view.showAllProperty().addListener(new WeakInvalidationListener(sizeListener));
+            view.pageRotationProperty().addListener(new WeakInvalidationListener(sizeListener));
+
+            renderZoomFactor.addListener(new WeakInvalidationListener(tileUpdateListener));
+            view.pageScaleProperty().addListener(new WeakInvalidationListener(tileUpdateListener));
+            view.tiledRenderingProperty().addListener(new WeakInvalidationListener(tileUpdateListener));
+            view.continuousScrollingProperty().addListener(new WeakInvalidationListener(tileUpdateListener));
+
+            page.addEventHandler(MouseEvent.MOUSE_PRESSED, evt -> {
+                if (evt.getButton() == MouseButton.PRIMARY && !isEmpty() && getItem() != null) {
+                    page.setCursor(Cursor.TEXT);
+                    selectionService.setPageNumber(getItem());
+                    selectionService.setStart(getPagePoint(evt));
+                    selectionService.setEnd(getPagePoint(evt));
+                    selectionService.setMode(Selection.Mode.forClickCount(evt.getClickCount()));
+                    selectionService.restartLater();
+                    evt.consume();
+                }
+            });
+
+            page.addEventHandler(MouseEvent.MOUSE_RELEASED, evt -> {
+                if (evt.getButton() == MouseButton.PRIMARY) {
+                    page.setCursor(Cursor.DEFAULT);
+                    if (isSelectingOnPage()) {
+                        selectionService.setEnd(getPagePoint(evt));
+                        selectionService.restartLater();
+                    }
+                    evt.consume();
+                }
+            });
+
+            page.addEventHandler(MouseEvent.MOUSE_DRAGGED, evt -> {
+                if (evt.getButton() == MouseButton.PRIMARY && isSelectingOnPage()) {
+                    selectionService.setEnd(getPagePoint(evt));
+                    selectionService.restartLater();
+                    evt.consume();
+                }
+            });
+        }
+
+        // the cell might have been reused for another page while dragging
+        private boolean isSelectingOnPage() {
+            return !isEmpty() && getItem() != null && getItem() == selectionService.getPageNumber();
+        }
+
+        // maps the mouse position to PDF units, the local coordinates of the page already take its rotation into account
+        private Point2D getPagePoint(MouseEvent evt) {
+            double scale = page.getWidth() > 0 ? pageWidth / page.getWidth() : 0;
+            return new Point2D(evt.getX() * scale, evt.getY() * scale);
+        }
+
+        private void requestTileUpdate() {
+            tileLayer.requestTileUpdate();
+        }
+
+        @Override
+        protected void updateItem(Integer pageNumber, boolean empty) {
+            super.updateItem(pageNumber, empty);
+
+            if (pageNumber == null || empty || getSkinnable().getDocument() == null) {
+                // release the pixels, the cell might not be used again for a while
+                renderService.setPage(-1);
+                renderService.cancel();
+                imageView.setImage(null);
+                tileLayer.setPageNumber(-1);
+                highlightLayer.setPageNumber(-1);
+                return;
+            }
+
+            Document document = getSkinnable().getDocument();
+            pageWidth = document.getPageSize(pageNumber).getWidth();
+            highlightLayer.setPageWidth(pageWidth);
+            highlightLayer.setPageNumber(pageNumber);
+            tileLayer.setPageNumber(pageNumber);
+
+            // show the cached image or an empty placeholder until the page has been rendered
+            imageView.setImage(pageCache.get(new PageKey(pageNumber, renderService.getScale())));
+            renderService.setPage(pageNumber);
+
+            updatePageSize();
+        }
+
+        private void updatePageSize() {
+            Integer pageNumber = getItem();
+            Document document = getSkinnable().getDocument();
+            if (pageNumber == null || isEmpty() || document == null) {
+                return;
+            }
+
+            PDFView view = getSkinnable();
+            Dimension2D pageSize = document.getPageSize(pageNumber);
+            boolean rotated = view.getPageRotation() % 180 != 0;
+
+            // the page (after rotation) fills the width of the list view, multiplied by the zoom factor
+            double availableWidth = Math.max(0, listView.getWidth() - HORIZONTAL_GAP) * (view.isShowAll() ? 1 : view.getZoomFactor());
+            double width = rotated ? availableWidth * pageSize.getWidth() / pageSize.getHeight() : availableWidth;
+            double height = width * pageSize.getHeight() / pageSize.getWidth();
+
+            imageView.setFitWidth(width);
+            imageView.setFitHeight(height);
+            page.setPrefSize(width, height);
+            page.setMinSize(width, height);
+            page.setMaxSize(width, height);
+        }
+    }
+
+    private class PrefetchTask extends Task<Void> {
+
+        private final Document document;
+        private final PageKey key;
+        private final int generation = cacheGeneration;
+
+        public PrefetchTask(Document document, PageKey key) {
+            this.document = document;
+            this.key = key;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return super.cancel(false); // #21: Must not interrupt pdfbox otherwise the PDDocument will no longer be able to render pages
+        }
+
+        @Override
+        protected Void call() {
+            if (isCancelled() || pageCache.contains(key)) {
+                return null;
+            }
+
+            BufferedImage bufferedImage = document.renderPage(key.page(), key.scale(), this::isCancelled);
+            if (!isCancelled() && cacheGeneration == generation) {
+                pageCache.put(key, ImageConverter.toFXImage(bufferedImage));
+            }
+            return null;
         }
     }
 
@@ -1266,17 +2569,18 @@ public class PDFViewSkin extends SkinBase<PDFView> {
             setGraphic(finalBox);
             setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
 
-            renderService.scaleProperty().bind(getSkinnable().thumbnailPageScaleProperty());
             renderService.valueProperty().addListener(it -> imageView.setImage(renderService.getValue()));
 
             itemProperty().addListener(it -> {
                 PageSearchResult item = getItem();
                 if (item != null) {
-                    Image image = imageCache.get(item.getPageNumber());
-                    if (getSkinnable().isCacheThumbnails() && image != null) {
+                    Image image = getSkinnable().isCacheThumbnails() ? imageCache.get(item.getPageNumber()) : null;
+                    if (image != null) {
                         renderService.cancel();
                         imageView.setImage(image);
                     } else {
+                        // the same thumbnail as in the thumbnail list, so that both can share the cache
+                        renderService.setScale(getThumbnailScale(item.getPageNumber()));
                         renderService.setPage(item.getPageNumber());
                     }
                 } else {
@@ -1295,7 +2599,7 @@ public class PDFViewSkin extends SkinBase<PDFView> {
 
                 pageLabel.setText("Page " + (item.getPageNumber() + 1));
 
-                int matchCount = item.getItems().size();
+                int matchCount = item.getMatchCount();
                 if (matchCount == 1) {
                     matchesLabel.setText("1 match");
                 } else {
@@ -1309,6 +2613,11 @@ public class PDFViewSkin extends SkinBase<PDFView> {
 
                 summaryLabel.setText(text.substring(0, Math.min(120, text.length())));
 
+                // the cell is visible, so the snippets are needed now
+                if (!item.isLoaded()) {
+                    loadPageSearchResult(item, null);
+                }
+
                 Document document = getSkinnable().getDocument();
                 if (document.isLandscape(item.pageNumber)) {
                     imageView.fitWidthProperty().bind(getSkinnable().thumbnailSizeProperty().divide(3));
@@ -1351,11 +2660,12 @@ public class PDFViewSkin extends SkinBase<PDFView> {
             setMinSize(0, 0);
 
             InvalidationListener invalidationListener = it -> {
-                Image image = imageCache.get(getItem());
-                if (getSkinnable().isCacheThumbnails() && image != null) {
+                Image image = getSkinnable().isCacheThumbnails() ? imageCache.get(getItem()) : null;
+                if (image != null) {
                     renderService.cancel();
                     imageView.setImage(image);
                 } else {
+                    renderService.setScale(getThumbnailScale(getIndex()));
                     renderService.setPage(getIndex());
                 }
             };
@@ -1363,7 +2673,6 @@ public class PDFViewSkin extends SkinBase<PDFView> {
 
             itemProperty().addListener(invalidationListener);
 
-            renderService.scaleProperty().bind(getSkinnable().thumbnailPageScaleProperty());
             renderService.valueProperty().addListener(it -> imageView.setImage(renderService.getValue()));
         }
 
@@ -1392,10 +2701,53 @@ public class PDFViewSkin extends SkinBase<PDFView> {
         private final int pageNumber;
         private final String searchText;
         private final List<SearchResult> items = new ArrayList<>();
+        private final int matchCount;
+        private boolean loaded;
 
         public PageSearchResult(int pageNumber, String searchText) {
             this.pageNumber = pageNumber;
             this.searchText = searchText;
+            this.matchCount = -1;
+            this.loaded = true;
+        }
+
+        /**
+         * Constructs a page whose search results have not been loaded yet.
+         *
+         * @param pageNumber the page number
+         * @param searchText the text for which was searched
+         * @param matchCount the number of search results on the page
+         */
+        public PageSearchResult(int pageNumber, String searchText, int matchCount) {
+            this.pageNumber = pageNumber;
+            this.searchText = searchText;
+            this.matchCount = matchCount;
+        }
+
+        /**
+         * Determines whether the search results of the page have been loaded. If not, the
+         * list of items is empty.
+         *
+         * @return true if the search results have been loaded
+         */
+        public boolean isLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Returns the number of search results on the page, even if they have not been
+         * loaded yet.
+         *
+         * @return the number of search results
+         */
+        public int getMatchCount() {
+            return loaded ? items.size() : matchCount;
+        }
+
+        void setItems(List<SearchResult> items) {
+            this.items.clear();
+            this.items.addAll(items);
+            loaded = true;
         }
 
         public String getSearchText() {
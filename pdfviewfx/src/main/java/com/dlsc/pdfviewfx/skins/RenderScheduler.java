@@ -0,0 +1,195 @@
+package com.dlsc.pdfviewfx.skins;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An executor for render work that runs tasks by priority instead of in submission order.
+ * Tasks of the same priority run in the order in which they were submitted. Tasks that get
+ * cancelled while they are still waiting get skipped when it is their turn, they do not show up
+ * in the queue depth. They get removed from the queue whenever it has doubled in size since
+ * it was purged the last time, so purging costs a constant amount of time per task.
+ *
+ * @see Priority
+ */
+public final class RenderScheduler {
+
+    /**
+     * The priority classes, from highest to lowest.
+     */
+    public enum Priority {
+
+        /**
+         * The page (or its tiles) currently shown in the main area.
+         */
+        MAIN,
+
+        /**
+         * Thumbnails that are currently visible, e.g. in the thumbnail or the search result list.
+         */
+        VISIBLE,
+
+        /**
+         * Pages that are likely to be shown next.
+         */
+        PREFETCH,
+
+        /**
+         * Everything else, e.g. building indices.
+         */
+        BACKGROUND
+    }
+
+    // the queue size below which submitting a task never purges the queue
+    private static final int MIN_PURGE_SIZE = 64;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger purgeSize = new AtomicInteger(MIN_PURGE_SIZE);
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final ThreadPoolExecutor executor;
+    private final Map<Priority, Executor> executors = new EnumMap<>(Priority.class);
+
+    /**
+     * Constructs a new scheduler with a single worker thread.
+     *
+     * @param threadName the name of the worker threads, will be followed by a number
+     */
+    public RenderScheduler(String threadName) {
+        executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, queue, r -> {
+            Thread thread = new Thread(r, threadName + " " + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+
+        for (Priority priority : Priority.values()) {
+            executors.put(priority, runnable -> execute(runnable, priority));
+        }
+    }
+
+    /**
+     * Returns an executor that submits its tasks with the given priority, e.g. for use with
+     * {@link javafx.concurrent.Service#setExecutor(Executor)}.
+     *
+     * @param priority the priority of the tasks
+     * @return the executor
+     */
+    public Executor getExecutor(Priority priority) {
+        return executors.get(priority);
+    }
+
+    /**
+     * Submits the given task with the given priority.
+     *
+     * @param runnable the task
+     * @param priority the priority of the task
+     */
+    public void execute(Runnable runnable, Priority priority) {
+        if (queue.size() >= purgeSize.get()) {
+            purge();
+        }
+        executor.execute(new PrioritizedRunnable(runnable, priority, sequence.getAndIncrement()));
+    }
+
+    /**
+     * Removes the tasks from the queue that have been cancelled while waiting.
+     */
+    public void purge() {
+        queue.removeIf(runnable -> ((PrioritizedRunnable) runnable).isCancelled());
+        purgeSize.set(Math.max(MIN_PURGE_SIZE, queue.size() * 2));
+    }
+
+    /**
+     * Returns the number of tasks of the given priority that are waiting to be run.
+     *
+     * @param priority the priority
+     * @return the number of waiting tasks
+     */
+    public int getQueueDepth(Priority priority) {
+        int depth = 0;
+        for (Runnable runnable : queue) {
+            PrioritizedRunnable prioritizedRunnable = (PrioritizedRunnable) runnable;
+            if (prioritizedRunnable.priority == priority && !prioritizedRunnable.isCancelled()) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return the number of worker threads
+     */
+    public int getWorkerCount() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Sets the number of worker threads, which is the maximum number of tasks running at
+     * the same time.
+     *
+     * @param workerCount the number of worker threads, must be at least 1
+     */
+    public void setWorkerCount(int workerCount) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("worker count must be at least 1 but was " + workerCount);
+        }
+
+        // the core pool size must never exceed the maximum pool size, so the order matters
+        if (workerCount > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(workerCount);
+            executor.setCorePoolSize(workerCount);
+        } else {
+            executor.setCorePoolSize(workerCount);
+            executor.setMaximumPoolSize(workerCount);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("RenderScheduler [workers: " + getWorkerCount());
+        for (Priority priority : Priority.values()) {
+            builder.append(", ").append(priority.name().toLowerCase()).append(": ").append(getQueueDepth(priority));
+        }
+        return builder.append("]").toString();
+    }
+
+    private static final class PrioritizedRunnable implements Runnable, Comparable<PrioritizedRunnable> {
+
+        private final Runnable runnable;
+        private final Priority priority;
+        private final long sequence;
+
+        PrioritizedRunnable(Runnable runnable, Priority priority, long sequence) {
+            this.runnable = runnable;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        boolean isCancelled() {
+            return runnable instanceof Future<?> future && future.isCancelled();
+        }
+
+        @Override
+        public void run() {
+            if (!isCancelled()) {
+                runnable.run();
+            }
+        }
+
+        @Override
+        public int compareTo(PrioritizedRunnable other) {
+            int result = priority.compareTo(other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.dlsc.pdfviewfx;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.RenderDestination;
+import org.junit.Test;
+
+import java.awt.RenderingHints;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Compares rendering every page with a new {@link PDFRenderer}, which is what {@link PDFBoxDocument}
+ * used to do, with rendering all pages through one long-lived renderer, which is what its render
+ * contexts do. Both variants render with the same settings as {@link PDFView.RenderQuality#HIGH},
+ * each into a document instance of its own, so that the caches of one do not warm up the other.
+ * <p>
+ * This is not a unit test, it does not assert anything and it is not run by the regular build.
+ * Run it with {@code mvn test -Pbenchmark}, the timings get printed.
+ */
+public class PDFBoxDocumentRenderBenchmark {
+
+    private static final int PAGES = 40;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final float SCALE = 1.5f;
+
+    @Test
+    public void renderPages() throws IOException {
+        byte[] pdfBytes = TestDocuments.createManual(PAGES);
+
+        try (PDDocument pdDocument = Loader.loadPDF(pdfBytes)) {
+            measure("new PDFRenderer per page", pdDocument, () -> createRenderer(pdDocument));
+        }
+
+        try (PDDocument pdDocument = Loader.loadPDF(pdfBytes)) {
+            PDFRenderer renderer = createRenderer(pdDocument);
+            measure("one PDFRenderer for all pages", pdDocument, () -> renderer);
+        }
+    }
+
+    private static void measure(String name, PDDocument pdDocument, Supplier<PDFRenderer> renderers) throws IOException {
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+            renderAll(pdDocument, renderers);
+        }
+
+        double[] millisPerPage = new double[MEASUREMENT_ITERATIONS];
+        for (int iteration = 0; iteration < MEASUREMENT_ITERATIONS; iteration++) {
+            long start = System.nanoTime();
+            renderAll(pdDocument, renderers);
+            millisPerPage[iteration] = (System.nanoTime() - start) / 1e6 / PAGES;
+        }
+
+        double mean = 0;
+        for (double value : millisPerPage) {
+            mean += value / millisPerPage.length;
+        }
+        double variance = 0;
+        for (double value : millisPerPage) {
+            variance += (value - mean) * (value - mean) / millisPerPage.length;
+        }
+
+        System.out.printf("%-32s %8.3f ms/page (± %.3f, %d iterations)%n", name, mean, Math.sqrt(variance), MEASUREMENT_ITERATIONS);
+    }
+
+    private static void renderAll(PDDocument pdDocument, Supplier<PDFRenderer> renderers) throws IOException {
+        for (int page = 0; page < pdDocument.getNumberOfPages(); page++) {
+            renderers.get().renderImage(page, SCALE, ImageType.ARGB, RenderDestination.VIEW);
+        }
+    }
+
+    // the settings that PDFBoxDocument uses for RenderQuality.HIGH
+    private static PDFRenderer createRenderer(PDDocument pdDocument) {
+        RenderingHints hints = new RenderingHints(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        hints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        hints.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+
+        PDFRenderer renderer = new PDFRenderer(pdDocument);
+        renderer.setRenderingHints(hints);
+        renderer.setSubsamplingAllowed(false);
+        renderer.setDefaultDestination(RenderDestination.VIEW);
+        return renderer;
+    }
+}
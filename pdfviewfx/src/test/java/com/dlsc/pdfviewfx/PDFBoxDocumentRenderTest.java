@@ -0,0 +1,36 @@
+package com.dlsc.pdfviewfx;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that rendering through the render contexts of {@link PDFBoxDocument} produces the same
+ * images as a plain {@link PDFRenderer}.
+ */
+public class PDFBoxDocumentRenderTest {
+
+    private static final float SCALE = 1.5f;
+
+    @Test
+    public void renderedSizeMatchesPDFRenderer() throws IOException {
+        byte[] pdfBytes = TestDocuments.createManual(1);
+
+        PDFBoxDocument document = new PDFBoxDocument(new ByteArrayInputStream(pdfBytes));
+        try (PDDocument pdDocument = Loader.loadPDF(pdfBytes)) {
+            BufferedImage expected = new PDFRenderer(pdDocument).renderImage(0, SCALE);
+            BufferedImage actual = document.renderPage(0, SCALE);
+            assertEquals(expected.getWidth(), actual.getWidth());
+            assertEquals(expected.getHeight(), actual.getHeight());
+        } finally {
+            document.close();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.dlsc.pdfviewfx;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Creates the documents used by the tests and benchmarks.
+ */
+final class TestDocuments {
+
+    private TestDocuments() {
+    }
+
+    /**
+     * Creates a document whose pages look roughly like the pages of a manual: a heading, a few
+     * paragraphs of text, and some vector graphics.
+     *
+     * @param pages the number of pages
+     * @return the PDF bytes
+     * @throws IOException if the document can not be written
+     */
+    static byte[] createManual(int pages) throws IOException {
+        try (PDDocument pdDocument = new PDDocument()) {
+            PDType1Font regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            PDType1Font bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+
+            for (int pageNumber = 0; pageNumber < pages; pageNumber++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                pdDocument.addPage(page);
+
+                try (PDPageContentStream content = new PDPageContentStream(pdDocument, page)) {
+                    content.beginText();
+                    content.setFont(bold, 18);
+                    content.newLineAtOffset(50, 780);
+                    content.showText("Chapter " + (pageNumber + 1));
+                    content.setFont(regular, 10);
+                    content.setLeading(13);
+                    for (int line = 0; line < 50; line++) {
+                        content.newLine();
+                        content.showText("Line " + line + ": The quick brown fox jumps over the lazy dog, again and again.");
+                    }
+                    content.endText();
+
+                    for (int box = 0; box < 20; box++) {
+                        content.addRect(50 + box * 24, 40, 20, 20);
+                    }
+                    content.stroke();
+                }
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            pdDocument.save(out);
+            return out.toByteArray();
+        }
+    }
+}